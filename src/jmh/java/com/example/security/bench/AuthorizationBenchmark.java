@@ -0,0 +1,72 @@
+package com.example.security.bench;
+
+import com.example.security.controller.UserController;
+import com.example.security.security.CompiledAuthorizationManager;
+import com.example.security.security.IndexedAuthenticationToken;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One @PreAuthorize("hasAuthority('PERM_USER_VIEW')") decision on UserController.all: the stock SpEL manager
+ * against CompiledAuthorizationManager with a plain and with an indexed token. The required authority is
+ * last in the principal's list, the worst case for a linear scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthorizationBenchmark {
+
+    @Param({"10", "100"})
+    public int authorities;
+
+    private PreAuthorizeAuthorizationManager spel;
+    private CompiledAuthorizationManager compiled;
+    private MethodInvocation invocation;
+    private Authentication plain;
+    private Authentication indexed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        spel = new PreAuthorizeAuthorizationManager();
+        spel.setExpressionHandler(new DefaultMethodSecurityExpressionHandler());
+        compiled = new CompiledAuthorizationManager(spel);
+        compiled.precompile(UserController.class);
+        invocation = new SimpleMethodInvocation(new UserController(null, null, null),
+                UserController.class.getMethod("all"));
+
+        List<GrantedAuthority> granted = new ArrayList<>();
+        for (int i = 1; i < authorities; i++) granted.add(new SimpleGrantedAuthority("PERM_OTHER_" + i));
+        granted.add(new SimpleGrantedAuthority("PERM_USER_VIEW"));
+        plain = new UsernamePasswordAuthenticationToken("bench-user", null, granted);
+        indexed = new IndexedAuthenticationToken("bench-user", granted);
+    }
+
+    @Benchmark
+    public AuthorizationResult spel() {
+        return spel.authorize(() -> plain, invocation);
+    }
+
+    @Benchmark
+    public AuthorizationResult compiledPlainToken() {
+        return compiled.authorize(() -> plain, invocation);
+    }
+
+    @Benchmark
+    public AuthorizationResult compiledIndexedToken() {
+        return compiled.authorize(() -> indexed, invocation);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.security.bench;
+
+import com.example.security.domain.Permission;
+import com.example.security.domain.Role;
+import com.example.security.domain.UserAccount;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** In-memory RBAC graphs shared by the benchmarks; ids are assigned by hand, nothing touches a database. */
+final class Fixtures {
+    private Fixtures(){}
+
+    /** ROLE_0..n-1 and PERM_0..(roles*perms)-1, the claim shape generateAccess receives. */
+    static List<String> authorities(int roles, int permsPerRole) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < roles; i++) out.add("ROLE_" + i);
+        for (int i = 0; i < roles * permsPerRole; i++) out.add("PERM_" + i);
+        return out;
+    }
+
+    /**
+     * A user holding {@code roles} roles of {@code permsPerRole} permissions each; every role shares half of
+     * its permissions with the next one so the mapper's de-duplication does real work.
+     */
+    static UserAccount user(int roles, int permsPerRole) {
+        List<Permission> pool = new ArrayList<>();
+        for (long i = 0; i < (long) roles * permsPerRole; i++) {
+            pool.add(Permission.builder().id(i).tenantId("bench").name("PERM_" + i).build());
+        }
+        Set<Role> userRoles = new HashSet<>();
+        int stride = Math.max(1, permsPerRole / 2);
+        for (int r = 0; r < roles; r++) {
+            Set<Permission> perms = new HashSet<>();
+            for (int p = 0; p < permsPerRole; p++) perms.add(pool.get((r * stride + p) % pool.size()));
+            userRoles.add(Role.builder().id((long) r).tenantId("bench").name("ROLE_" + r).permissions(perms).build());
+        }
+        return UserAccount.builder()
+                .id(1L)
+                .tenantId("bench")
+                .username("bench-user")
+                .password("{noop}x")
+                .enabled(true)
+                .createdAt(Instant.now())
+                .roles(userRoles)
+                .build();
+    }
+}
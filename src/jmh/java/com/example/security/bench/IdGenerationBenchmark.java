@@ -0,0 +1,187 @@
+package com.example.security.bench;
+
+import com.example.security.domain.Permission;
+import com.example.security.domain.RefreshToken;
+import com.example.security.domain.Role;
+import com.example.security.domain.UserAccount;
+import jakarta.persistence.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Insert throughput of the pooled-sequence entities against IDENTITY-keyed copies of the same tables.
+ * Hibernate cannot batch IDENTITY inserts, so each row costs its own round trip there.
+ *
+ * <p>Runs on in-memory H2 (Oracle mode) by default, which understates the gap because a round trip is cheap.
+ * Pass {@code -Dbench.jdbc.url/user/password} to run against Oracle; the schema is created and dropped,
+ * so only ever point it at a scratch schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IdGenerationBenchmark {
+
+    /** Rows written per transaction; throughput is reported in transactions per second. */
+    @Param({"1", "100"})
+    public int rows;
+
+    private SessionFactory sessionFactory;
+    private Long sequenceOwnerId;
+    private Long identityOwnerId;
+    private final AtomicLong counter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, System.getProperty("bench.jdbc.url",
+                        "jdbc:h2:mem:idbench;MODE=Oracle;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS HR"))
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, System.getProperty("bench.jdbc.user", "sa"))
+                .applySetting(AvailableSettings.JAKARTA_JDBC_PASSWORD, System.getProperty("bench.jdbc.password", ""))
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 100)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(UserAccount.class, Role.class, Permission.class, RefreshToken.class,
+                        IdentityUser.class, IdentityRefreshToken.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        UserAccount owner = newUser();
+        IdentityUser identityOwner = newIdentityUser();
+        inTx(s -> {
+            s.persist(owner);
+            s.persist(identityOwner);
+        });
+        sequenceOwnerId = owner.getId();
+        identityOwnerId = identityOwner.id;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void refreshTokensSequence() {
+        inTx(s -> {
+            UserAccount owner = s.getReference(UserAccount.class, sequenceOwnerId);
+            for (int i = 0; i < rows; i++) {
+                s.persist(RefreshToken.builder()
+                        .jti(UUID.randomUUID().toString())
+                        .user(owner)
+                        .tenantId("bench")
+                        .expiresAt(Instant.now().plusSeconds(3600))
+                        .build());
+            }
+        });
+    }
+
+    @Benchmark
+    public void refreshTokensIdentity() {
+        inTx(s -> {
+            IdentityUser owner = s.getReference(IdentityUser.class, identityOwnerId);
+            for (int i = 0; i < rows; i++) {
+                var t = new IdentityRefreshToken();
+                t.jti = UUID.randomUUID().toString();
+                t.user = owner;
+                t.tenantId = "bench";
+                t.createdAt = Instant.now();
+                t.expiresAt = t.createdAt.plusSeconds(3600);
+                s.persist(t);
+            }
+        });
+    }
+
+    @Benchmark
+    public void bulkUsersSequence() {
+        inTx(s -> {
+            for (int i = 0; i < rows; i++) s.persist(newUser());
+        });
+    }
+
+    @Benchmark
+    public void bulkUsersIdentity() {
+        inTx(s -> {
+            for (int i = 0; i < rows; i++) s.persist(newIdentityUser());
+        });
+    }
+
+    private UserAccount newUser() {
+        return UserAccount.builder()
+                .tenantId("bench")
+                .username("u" + counter.incrementAndGet())
+                .password("{bcrypt}$2a$10$benchbenchbenchbenchbenchbenchbenchbenchbenchbenchbench")
+                .enabled(true)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private IdentityUser newIdentityUser() {
+        var u = new IdentityUser();
+        u.tenantId = "bench";
+        u.username = "u" + counter.incrementAndGet();
+        u.password = "{bcrypt}$2a$10$benchbenchbenchbenchbenchbenchbenchbenchbenchbenchbench";
+        u.createdAt = Instant.now();
+        return u;
+    }
+
+    private void inTx(Consumer<Session> work) {
+        try (Session s = sessionFactory.openSession()) {
+            var tx = s.beginTransaction();
+            work.accept(s);
+            tx.commit();
+        }
+    }
+
+    // Same columns as USERS / REFRESH_TOKENS, keyed by IDENTITY as before the switch to sequences.
+
+    @Entity(name = "IdentityUser")
+    @Table(name = "BENCH_IDENTITY_USERS")
+    public static class IdentityUser {
+        @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        @Column(name = "TENANT_ID", length = 64, nullable = false)
+        String tenantId;
+        @Column(nullable = false, length = 80)
+        String username;
+        @Column(nullable = false, length = 200)
+        String password;
+        @Column(nullable = false)
+        boolean enabled = true;
+        @Column(name = "CREATED_AT", updatable = false)
+        Instant createdAt;
+    }
+
+    @Entity(name = "IdentityRefreshToken")
+    @Table(name = "BENCH_IDENTITY_REFRESH_TOKENS")
+    public static class IdentityRefreshToken {
+        @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+        @Column(name = "JTI", nullable = false, unique = true, length = 64)
+        String jti;
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "USER_ID", nullable = false)
+        IdentityUser user;
+        @Column(name = "TENANT_ID", nullable = false, length = 64)
+        String tenantId;
+        @Column(name = "CREATED_AT", nullable = false, updatable = false)
+        Instant createdAt;
+        @Column(name = "EXPIRES_AT", nullable = false)
+        Instant expiresAt;
+        @Column(name = "REVOKED", nullable = false)
+        boolean revoked;
+    }
+}
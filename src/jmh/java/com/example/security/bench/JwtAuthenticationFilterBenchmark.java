@@ -0,0 +1,104 @@
+package com.example.security.bench;
+
+import com.example.security.repo.AuthzEpochRepository;
+import com.example.security.repo.PermissionRepository;
+import com.example.security.repo.RevokedAccessTokenRepository;
+import com.example.security.repo.RoleRepository;
+import com.example.security.repo.UserAccountRepository;
+import com.example.security.security.AccessTokenRevocationStore;
+import com.example.security.security.AuthMetrics;
+import com.example.security.security.JwtAuthenticationFilter;
+import com.example.security.security.JwtService;
+import com.example.security.service.AuthorityDictionary;
+import com.example.security.service.AuthorizationEpochs;
+import com.example.security.service.CustomUserDetailsService;
+import com.example.security.service.UserDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * One authenticated request through JwtAuthenticationFilter: parse, revocation check, tenant scope and
+ * principal construction, metrics included. Repositories are Mockito mocks that the measured path never calls: stateful mode
+ * is served by a warm UserDetailsCache, stateless mode builds the principal from the claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"HS256", "ES256"})
+    public String algorithm;
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    /** Authorities as an AuthorityDictionary bitset instead of a string array (only read in stateless mode). */
+    @Param({"false", "true"})
+    public boolean compact;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtService jwt = new JwtService(JwtServiceBenchmark.SECRET, 900, 1_209_600, "tenant", 0, algorithm, "", "", "");
+        List<String> authorities = Fixtures.authorities(5, 20);
+
+        UserDetailsCache cache = new UserDetailsCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(cache, "maxPerTenant", 10_000);
+        cache.put("bench", User.withUsername("bench-user").password("{noop}x")
+                .authorities(authorities.stream().map(SimpleGrantedAuthority::new).toList()).build(), Set.of(), Set.of());
+
+        var metrics = new AuthMetrics(new SimpleMeterRegistry(), 50);
+        RoleRepository roleRepo = mock(RoleRepository.class);
+        PermissionRepository permRepo = mock(PermissionRepository.class);
+        when(roleRepo.findNamesByTenantId("bench")).thenReturn(
+                authorities.stream().filter(a -> a.startsWith("ROLE_")).toList());
+        when(permRepo.findNamesByTenantId("bench")).thenReturn(
+                authorities.stream().filter(a -> a.startsWith("PERM_")).toList());
+        var dictionary = new AuthorityDictionary(permRepo, roleRepo, compact, 5000);
+        var users = new CustomUserDetailsService(mock(UserAccountRepository.class), cache, metrics);
+        var revocations = new AccessTokenRevocationStore(mock(RevokedAccessTokenRepository.class),
+                mock(PlatformTransactionManager.class));
+        var epochs = new AuthorizationEpochs(mock(AuthzEpochRepository.class), cache,
+                mock(EntityManagerFactory.class), mock(PlatformTransactionManager.class), true, 900);
+        filter = new JwtAuthenticationFilter(jwt, users, revocations, metrics, dictionary, epochs);
+        ReflectionTestUtils.setField(filter, "stateless", stateless);
+
+        request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader("Authorization", "Bearer "
+                + jwt.generateAccess("bench-user", "bench", dictionary.encode("bench", authorities)));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void authenticatedRequest(Blackhole bh) throws Exception {
+        FilterChain chain = (req, res) -> {
+            bh.consume(SecurityContextHolder.getContext().getAuthentication());
+            SecurityContextHolder.clearContext();
+        };
+        filter.doFilter(request, response, chain);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.security.bench;
+
+import com.example.security.security.JwtService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token minting and verification as done on login, refresh and every authenticated request.
+ * ES256 uses an ephemeral key pair (no keystore), which is what the production signer does per call.
+ * {@code verifiedCacheSize > 0} measures the repeat-token path through VerifiedTokenCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "bench-secret-bench-secret-bench-secret-0123456789";
+
+    @Param({"HS256", "ES256"})
+    public String algorithm;
+
+    @Param({"0", "10000"})
+    public int verifiedCacheSize;
+
+    private JwtService jwt;
+    private List<String> authorities;
+    private String accessToken;
+    private String refreshToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwt = new JwtService(SECRET, 900, 1_209_600, "tenant", verifiedCacheSize, algorithm, "", "", "");
+        authorities = Fixtures.authorities(5, 20);
+        accessToken = jwt.generateAccess("bench-user", "bench", authorities);
+        refreshToken = jwt.generateRefresh("bench-user", "bench", "jti-1", 42L);
+    }
+
+    @Benchmark
+    public String generateAccess() {
+        return jwt.generateAccess("bench-user", "bench", authorities);
+    }
+
+    @Benchmark
+    public String generateRefresh() {
+        return jwt.generateRefresh("bench-user", "bench", "jti-1", 42L);
+    }
+
+    @Benchmark
+    public Object parseAccess() {
+        return jwt.parse(accessToken).getBody();
+    }
+
+    @Benchmark
+    public Object parseRefresh() {
+        return jwt.parse(refreshToken).getBody();
+    }
+}
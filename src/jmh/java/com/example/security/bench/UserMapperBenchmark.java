@@ -0,0 +1,35 @@
+package com.example.security.bench;
+
+import com.example.security.domain.UserAccount;
+import com.example.security.dto.UserDto;
+import com.example.security.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** UserMapper.toDto on role graphs from a handful of roles up to admin-sized ones. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserMapperBenchmark {
+
+    @Param({"5", "50"})
+    public int roles;
+
+    @Param({"10", "100"})
+    public int permsPerRole;
+
+    private UserAccount user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = Fixtures.user(roles, permsPerRole);
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return UserMapper.toDto(user);
+    }
+}
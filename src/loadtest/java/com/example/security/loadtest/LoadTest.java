@@ -0,0 +1,215 @@
+package com.example.security.loadtest;
+
+import com.example.security.SecurityOracleJwtApplication;
+import com.example.security.bootstrap.DataSeeder;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.Histogram;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the application in-process (profiles dev + loadtest: H2 in Oracle mode, seeded by DataSeeder) and
+ * drives login, refresh and an authenticated GET with a closed-loop client, one phase after the other.
+ * Per phase it prints HdrHistogram percentiles, throughput, errors and SQL statements per request; the last
+ * column is the one that moves when a change introduces an N+1.
+ *
+ * <p>Arguments are key=value: concurrency (16), duration seconds per phase (20), warmup seconds (5),
+ * users to seed (1000), usersPath (/api/users?limit=50). Latencies are measured from send to last byte;
+ * a closed loop under-reports queueing delay, so compare runs at equal concurrency only.
+ *
+ * <p>{@code url=http://host:port} drives a server that is already running instead, e.g. the reactive
+ * deployment ({@code -Preactive}, which seeds the same load users); sql/req is then not available.
+ */
+public final class LoadTest {
+
+    private static final Pattern ACCESS = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern REFRESH_COOKIE = Pattern.compile("refresh_token=([^;]*)");
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String base;
+    private final int users;
+
+    private LoadTest(String base, int users) {
+        this.base = base;
+        this.users = users;
+    }
+
+    /** What a virtual user carries between requests. */
+    private static final class Session {
+        String access;
+        String refreshCookie;
+    }
+
+    private interface Step {
+        boolean run(Session s) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq > 0) opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int concurrency = Integer.parseInt(opts.getOrDefault("concurrency", "16"));
+        int duration = Integer.parseInt(opts.getOrDefault("duration", "20"));
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "5"));
+        int users = Integer.parseInt(opts.getOrDefault("users", "1000"));
+        String usersPath = opts.getOrDefault("usersPath", "/api/users?limit=50");
+
+        if (opts.containsKey("url")) {
+            run(new LoadTest(opts.get("url"), users), null, concurrency, duration, warmup, usersPath);
+            return;
+        }
+        SpringApplication app = new SpringApplication(SecurityOracleJwtApplication.class);
+        app.setAdditionalProfiles("dev", "loadtest");
+        app.setDefaultProperties(Map.of("app.seed.load-users", users));
+        try (ConfigurableApplicationContext ctx = app.run()) {
+            int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            Statistics stats = ctx.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            run(new LoadTest("http://localhost:" + port, users), stats, concurrency, duration, warmup, usersPath);
+        }
+    }
+
+    private static void run(LoadTest test, Statistics stats, int concurrency, int duration, int warmup,
+                            String usersPath) throws Exception {
+        System.out.printf("%nLoad test: %d clients, %ds per phase (+%ds warmup), %d seeded users%n",
+                concurrency, duration, warmup, test.users);
+        System.out.printf("%-10s %10s %8s %9s %9s %9s %9s %9s %7s %9s%n",
+                "phase", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "sql/req");
+
+        test.phase("login", concurrency, warmup, duration, stats, s -> test.login(s));
+        test.phase("refresh", concurrency, warmup, duration, stats, s -> s.refreshCookie != null || test.login(s)
+                ? test.refresh(s) : false);
+        test.phase("users", concurrency, warmup, duration, stats, s -> s.access != null || test.login(s)
+                ? test.get(s, usersPath) : false);
+    }
+
+    private void phase(String name, int concurrency, int warmup, int duration, Statistics stats, Step step)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            // one session per client thread; warmup results are discarded
+            List<Session> sessions = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) sessions.add(new Session());
+            drive(pool, sessions, step, TimeUnit.SECONDS.toNanos(warmup));
+
+            long statementsBefore = stats == null ? 0 : stats.getPrepareStatementCount();
+            long start = System.nanoTime();
+            List<Result> results = drive(pool, sessions, step, TimeUnit.SECONDS.toNanos(duration));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long statements = stats == null ? 0 : stats.getPrepareStatementCount() - statementsBefore;
+
+            Histogram all = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+            long errors = 0;
+            for (Result r : results) {
+                all.add(r.latencies);
+                errors += r.errors;
+            }
+            long count = all.getTotalCount();
+            System.out.printf("%-10s %10d %8.0f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %9s%n",
+                    name, count, count / seconds,
+                    ms(all.getValueAtPercentile(50)), ms(all.getValueAtPercentile(90)),
+                    ms(all.getValueAtPercentile(99)), ms(all.getValueAtPercentile(99.9)), ms(all.getMaxValue()),
+                    errors, stats == null ? "-" : String.format("%.2f", count == 0 ? 0.0 : (double) statements / count));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private record Result(Histogram latencies, long errors) {}
+
+    private List<Result> drive(ExecutorService pool, List<Session> sessions, Step step, long nanos) throws Exception {
+        long deadline = System.nanoTime() + nanos;
+        List<Future<Result>> futures = new ArrayList<>();
+        for (Session s : sessions) {
+            futures.add(pool.submit(() -> {
+                Histogram h = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+                long errors = 0;
+                while (System.nanoTime() < deadline) {
+                    long t0 = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = step.run(s);
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    if (ok) h.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - t0),
+                            h.getHighestTrackableValue()));
+                    else errors++;
+                }
+                return new Result(h, errors);
+            }));
+        }
+        List<Result> out = new ArrayList<>();
+        for (Future<Result> f : futures) out.add(f.get());
+        return out;
+    }
+
+    private boolean login(Session s) throws Exception {
+        String user = "load-" + ThreadLocalRandom.current().nextInt(users);
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + user + "\",\"password\":\"" + DataSeeder.LOAD_PASSWORD + "\"}"))
+                .build();
+        return keepTokens(s, http.send(req, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private boolean refresh(Session s) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/api/auth/refresh"))
+                .header("Cookie", "refresh_token=" + s.refreshCookie)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        boolean ok = keepTokens(s, http.send(req, HttpResponse.BodyHandlers.ofString()));
+        if (!ok) s.refreshCookie = null; // rotated away or expired: log in again next time
+        return ok;
+    }
+
+    private boolean get(Session s, String path) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Authorization", "Bearer " + s.access)
+                .GET()
+                .build();
+        HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+        if (res.statusCode() == 401) s.access = null;
+        return res.statusCode() == 200;
+    }
+
+    private static boolean keepTokens(Session s, HttpResponse<String> res) {
+        if (res.statusCode() != 200) return false;
+        Matcher m = ACCESS.matcher(res.body());
+        if (m.find()) s.access = m.group(1);
+        for (String cookie : res.headers().allValues("Set-Cookie")) {
+            Matcher c = REFRESH_COOKIE.matcher(cookie);
+            if (c.find()) s.refreshCookie = c.group(1);
+        }
+        return true;
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 import java.util.Locale;
+import java.util.Map;
 
 @SpringBootApplication
 public class SecurityOracleJwtApplication {
@@ -12,7 +13,10 @@ public class SecurityOracleJwtApplication {
         Locale.setDefault(Locale.forLanguageTag("en-US-u-nu-latn"));
         System.setProperty("user.language", "en");
         System.setProperty("user.country", "US");
-        SpringApplication.run(SecurityOracleJwtApplication.class, args);
+        SpringApplication app = new SpringApplication(SecurityOracleJwtApplication.class);
+        // أقل أولوية: أي إعداد management.* في الخصائص يتجاوزها
+        app.setDefaultProperties(Map.of("management.endpoints.web.exposure.include", "health,prometheus"));
+        app.run(args);
 
         // TODO: نقطة دخول التطبيق
     }
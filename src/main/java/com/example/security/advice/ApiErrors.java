@@ -9,6 +9,9 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import com.example.security.dto.ErrorResponse;
+import com.example.security.security.HashingPoolSaturatedException;
+import com.example.security.security.LoginThrottledException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -69,6 +72,19 @@ public class ApiErrors {
         return buildResponse(HttpStatus.FORBIDDEN, "FORBIDDEN", ex.getMessage(), null);
     }
 
+    @ExceptionHandler(HashingPoolSaturatedException.class)
+    public ResponseEntity<ErrorResponse> handleHashingSaturated(HashingPoolSaturatedException ex) {
+        ResponseEntity<ErrorResponse> r = buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "OVERLOADED", ex.getMessage(), null);
+        return ResponseEntity.status(r.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(r.getBody());
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorResponse> handleLoginThrottled(LoginThrottledException ex) {
+        ResponseEntity<ErrorResponse> r = buildResponse(HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS", ex.getMessage(), null);
+        return ResponseEntity.status(r.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds())).body(r.getBody());
+    }
+
     @ExceptionHandler(NoHandlerFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(NoHandlerFoundException ex) {
         return buildResponse(HttpStatus.NOT_FOUND, "NOT_FOUND", "No handler for request", null);
@@ -15,6 +15,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Component
@@ -30,12 +33,19 @@ public class DataSeeder implements CommandLineRunner {
     @Value("${app.default-tenant:default}")
     private String defaultTenant;
 
+    // load-0..load-(n-1) بكلمة المرور LOAD_PASSWORD لاختبار الحمل (0 = لا شيء)
+    @Value("${app.seed.load-users:0}")
+    private int loadUsers;
+    @Value("${app.seed.load-permissions:20}")
+    private int loadPermissions;
+
+    public static final String LOAD_PASSWORD = "Load@12345";
+
     @Override
     @Transactional
     public void run(String... args) {
         // اجعل الـtenant الحالي معروفًا أثناء البذر
-        TenantContext.setTenantId(defaultTenant);
-        try {
+        try (TenantContext.Scope ignored = TenantContext.enter(defaultTenant)) {
             // صلاحيات لكل Tenant
             Permission pView = perms.findByNameAndTenantId("PERM_USER_VIEW", defaultTenant)
                     .orElseGet(() -> perms.save(
@@ -51,6 +61,13 @@ public class DataSeeder implements CommandLineRunner {
                                     .name("PERM_USER_CREATE")
                                     .build()
                     ));
+            Permission pIntrospect = perms.findByNameAndTenantId("PERM_TOKEN_INTROSPECT", defaultTenant)
+                    .orElseGet(() -> perms.save(
+                            Permission.builder()
+                                    .tenantId(defaultTenant)
+                                    .name("PERM_TOKEN_INTROSPECT")
+                                    .build()
+                    ));
 
             // أدوار لكل Tenant
             Role roleAdmin = roles.findByNameAndTenantId("ROLE_ADMIN", defaultTenant)
@@ -59,7 +76,7 @@ public class DataSeeder implements CommandLineRunner {
                                 .tenantId(defaultTenant)
                                 .name("ROLE_ADMIN")
                                 .build();
-                        r.setPermissions(Set.of(pView, pCreate));
+                        r.setPermissions(Set.of(pView, pCreate, pIntrospect));
                         return roles.save(r);
                     });
 
@@ -93,8 +110,39 @@ public class DataSeeder implements CommandLineRunner {
                 user.setRoles(Set.of(roleUser));
                 users.save(user);
             }
-        } finally {
-            TenantContext.clear();
+
+            if (loadUsers > 0 && users.findByUsernameIgnoreCaseAndTenantId("load-0", defaultTenant).isEmpty()) {
+                seedLoadUsers(pView);
+            }
+        }
+    }
+
+    // دور واحد بعدد صلاحيات واقعي، و hash واحد مشترك: BCrypt لكل مستخدم سيستغرق دقائق
+    private void seedLoadUsers(Permission pView) {
+        Set<Permission> loadPerms = new HashSet<>(Set.of(pView));
+        for (int i = 0; i < loadPermissions; i++) {
+            loadPerms.add(perms.save(Permission.builder().tenantId(defaultTenant).name("PERM_LOAD_" + i).build()));
+        }
+        Role roleLoad = Role.builder().tenantId(defaultTenant).name("ROLE_LOAD").build();
+        roleLoad.setPermissions(loadPerms);
+        roleLoad = roles.save(roleLoad);
+
+        String hash = encoder.encode(LOAD_PASSWORD);
+        List<UserAccount> batch = new ArrayList<>();
+        for (int i = 0; i < loadUsers; i++) {
+            UserAccount u = UserAccount.builder()
+                    .tenantId(defaultTenant)
+                    .username("load-" + i)
+                    .password(hash)
+                    .enabled(true)
+                    .build();
+            u.setRoles(Set.of(roleLoad));
+            batch.add(u);
+            if (batch.size() == 500) {
+                users.saveAll(batch);
+                batch.clear();
+            }
         }
+        users.saveAll(batch);
     }
 }
@@ -1,14 +1,95 @@
 package com.example.security.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class CryptoConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CryptoConfig.class);
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+
+    /**
+     * BCrypt with a cost picked at startup so one hash takes about {@code security.password.target-ms} on this
+     * hardware (or fixed via {@code security.password.bcrypt-strength}). Hashes are written as {@code {bcrypt}...};
+     * un-prefixed legacy hashes still verify, and any hash below the current cost reports
+     * {@code upgradeEncoding() == true} so it is rewritten on the next successful login. Calibration runs per
+     * node and can settle on different costs, so clustered deployments should pin the strength.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.target-ms:150}") long targetMs,
+                                           @Value("${security.password.bcrypt-strength:0}") int fixedStrength,
+                                           @Value("${security.password.min-strength:10}") int minStrength) {
+        int strength = fixedStrength > 0 ? fixedStrength : calibrate(targetMs, minStrength);
+        if (fixedStrength <= 0) {
+            log.warn("security.password.bcrypt-strength is not set; with several nodes pin it so all hash at one cost");
+        }
+        var bcrypt = new CostPinnedBCryptPasswordEncoder(strength);
+        var delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    // bulk import hashing; kept apart from request threads. Full queue -> the importing thread hashes itself.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService importHashingExecutor(@Value("${app.import.hash-threads:0}") int threads) {
+        int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(n * 64),
+                new CustomizableThreadFactory("import-hash-"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // each +1 doubles the work: time one hash at the floor and extrapolate
+    private static int calibrate(long targetMs, int minStrength) {
+        var probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration"); // warm-up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double baseMs = Math.max(best / 1_000_000.0, 0.001);
+        int extra = (int) Math.floor(Math.log(targetMs / baseMs) / Math.log(2));
+        int strength = Math.min(MAX_BCRYPT_STRENGTH, minStrength + Math.max(0, extra));
+        log.info("BCrypt cost {} chosen: cost {} took {} ms, target {} ms",
+                strength, minStrength, String.format("%.1f", baseMs), targetMs);
+        return strength;
+    }
+
+    /**
+     * Flags hashes for rehash when their cost is below ours. Never downwards: a node that calibrated lower must not
+     * undo what a faster node wrote, or logins alternating between them rewrite the hash every time.
+     */
+    static final class CostPinnedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+        private final int strength;
+
+        CostPinnedBCryptPasswordEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encoded) {
+            // $2a$10$... -> cost is the two digits after the second '$'
+            if (encoded == null || encoded.length() < 7 || encoded.charAt(0) != '$') return false;
+            try {
+                return Integer.parseInt(encoded.substring(4, 6)) < strength;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
     }
 }
@@ -0,0 +1,29 @@
+package com.example.security.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JDBC batching for Hibernate writes (e.g. ROLE_PERMISSIONS rows from bulk permission assignment),
+ * plus the per-thread statement count behind the auth.user_details.queries metric.
+ * Only fills in defaults: explicit spring.jpa.properties.* entries take precedence.
+ */
+@Configuration
+public class JpaBatchingConfig {
+
+    @Value("${app.jpa.batch-size:100}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return props -> {
+            props.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            props.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            props.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            props.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, QueryCounter.class.getName());
+        };
+    }
+}
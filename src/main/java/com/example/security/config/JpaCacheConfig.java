@@ -0,0 +1,37 @@
+package com.example.security.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Second-level cache for Role, Role.permissions and Permission on in-JVM Caffeine JCache.
+ * Regions and their bounds are declared in application.conf; a region missing there fails startup
+ * instead of being created unbounded. Like JpaBatchingConfig, explicit spring.jpa.properties.* win.
+ */
+@Configuration
+public class JpaCacheConfig {
+
+    static final String[] REGIONS = {"roles", "role_permissions", "permissions"};
+
+    @Value("${app.jpa.second-level-cache:true}")
+    private boolean enabled;
+
+    // per-session bookkeeping: off unless a profile needs /actuator/l2cache or the load test counters
+    @Value("${app.jpa.statistics:false}")
+    private boolean statistics;
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer() {
+        return props -> {
+            props.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            props.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            props.putIfAbsent("hibernate.javax.cache.provider",
+                    "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+            props.putIfAbsent("hibernate.javax.cache.missing_cache_strategy", "fail");
+            props.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, statistics);
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.security.config;
+
+import com.example.security.security.CompiledAuthorizationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Replaces the default @PreAuthorize interceptor (SecurityConfig sets prePostEnabled = false) with
+ * CompiledAuthorizationManager; expressions it cannot compile are still evaluated by the standard SpEL manager.
+ */
+@Configuration
+public class MethodSecurityConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodSecurityConfig.class);
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static CompiledAuthorizationManager compiledAuthorizationManager(ApplicationContext context) {
+        var handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setApplicationContext(context);
+        var spel = new PreAuthorizeAuthorizationManager();
+        spel.setExpressionHandler(handler);
+        return new CompiledAuthorizationManager(spel);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAuthorizationAdvisor(CompiledAuthorizationManager manager) {
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(manager);
+    }
+
+    // resolve every controller rule at startup instead of on the first request to each endpoint
+    @EventListener(ContextRefreshedEvent.class)
+    public void precompile(ContextRefreshedEvent event) {
+        ApplicationContext ctx = event.getApplicationContext();
+        CompiledAuthorizationManager manager = ctx.getBean(CompiledAuthorizationManager.class);
+        for (Object controller : ctx.getBeansWithAnnotation(RestController.class).values()) {
+            manager.precompile(AopUtils.getTargetClass(controller));
+        }
+        log.info("@PreAuthorize rules: {} compiled to direct checks, {} left to SpEL",
+                manager.compiledCount(), manager.interpretedCount());
+    }
+}
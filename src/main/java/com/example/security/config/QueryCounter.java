@@ -0,0 +1,23 @@
+package com.example.security.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements Hibernate prepares on the current thread, so a caller can attribute queries to one
+ * operation: {@code long before = QueryCounter.current(); ...; QueryCounter.current() - before}.
+ * Registered by JpaBatchingConfig; the SQL itself is passed through untouched.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+}
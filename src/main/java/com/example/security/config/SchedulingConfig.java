@@ -0,0 +1,32 @@
+package com.example.security.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * The pollers (revocations, authorization epochs, throttle sweep) run every few seconds on {@code taskScheduler};
+ * the refresh-token purge can hold its thread for a whole lease, so it gets {@code refreshPurgeScheduler} instead.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String REFRESH_PURGE_SCHEDULER = "refreshPurgeScheduler";
+
+    // declared here because a second TaskScheduler bean makes Boot back off from its own default
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(REFRESH_PURGE_SCHEDULER)
+    public ThreadPoolTaskScheduler refreshPurgeScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("refresh-purge-");
+        return scheduler;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.security.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Hit/miss/put per second-level cache region (needs app.jpa.statistics=true, off by default): {@code /actuator/l2cache}. */
+@Component
+@Endpoint(id = "l2cache")
+@RequiredArgsConstructor
+public class SecondLevelCacheEndpoint {
+
+    public record RegionStats(long hits, long misses, long puts) {}
+
+    private final EntityManagerFactory emf;
+
+    @ReadOperation
+    public Map<String, RegionStats> stats() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStats> out = new LinkedHashMap<>();
+        if (!stats.isStatisticsEnabled()) return out;
+        for (String region : JpaCacheConfig.REGIONS) {
+            CacheRegionStatistics r = stats.getDomainDataRegionStatistics(region);
+            if (r != null) {
+                out.put(region, new RegionStats(r.getHitCount(), r.getMissCount(), r.getPutCount()));
+            }
+        }
+        return out;
+    }
+}
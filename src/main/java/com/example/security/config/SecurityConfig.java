@@ -1,6 +1,7 @@
 package com.example.security.config;
 
 import com.example.security.security.JwtAuthenticationFilter;
+import com.example.security.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -12,6 +13,7 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -25,13 +27,14 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Configuration
-@EnableMethodSecurity
+@EnableMethodSecurity(prePostEnabled = false) // @PreAuthorize: MethodSecurityConfig
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtFilter;
     private final UserDetailsService userDetailsService;   // خدمة واحدة فقط (ضعِي @Primary على المختارة)
     private final PasswordEncoder passwordEncoder;         // يُحقن من CryptoConfig
+    private final PasswordHashingExecutor hashingExecutor;  // التحقق من كلمة المرور خارج خيوط الطلبات
 
     @Value("${app.cors.allowed-origins:http://localhost:4200}")
     private String allowedOriginsProp;
@@ -43,7 +46,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(reg -> reg
-                        .requestMatchers("/api/auth/**", "/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                        .requestMatchers("/api/auth/**", "/v3/api-docs/**", "/swagger-ui/**", "/.well-known/jwks.json").permitAll()
                         .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -56,7 +59,11 @@ public class SecurityConfig {
     public DaoAuthenticationProvider authProvider() {
         var provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder);
+        provider.setPasswordEncoder(hashingExecutor.offload(passwordEncoder));
+        // إعادة تشفير كلمة المرور عند الدخول فقط إذا كانت كلفة BCrypt المخزنة أقل من الحالية (ترقية، لا تخفيض أبداً)
+        if (userDetailsService instanceof UserDetailsPasswordService ups) {
+            provider.setUserDetailsPasswordService(ups);
+        }
         return provider;
     }
 
@@ -0,0 +1,34 @@
+package com.example.security.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * spring.threads.virtual.enabled=true (Java 21, -Pjava21 build) makes Boot serve Tomcat requests, @Async and
+ * @Scheduled work on virtual threads; concurrency is then bounded by the Hikari pool rather than server.tomcat.threads.max.
+ * BCrypt stays on PasswordHashingExecutor's platform pool either way. On older runtimes Boot ignores the flag silently,
+ * so say so at startup.
+ */
+@Configuration
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean requested;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (!requested) return;
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            log.warn("spring.threads.virtual.enabled=true ignored: running on Java {}, virtual threads need 21+", feature);
+        } else {
+            log.info("Serving requests on virtual threads (Java {})", feature);
+        }
+    }
+}
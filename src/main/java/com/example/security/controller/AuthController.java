@@ -2,25 +2,40 @@ package com.example.security.controller;
 
 import com.example.security.dto.AuthRequest;
 import com.example.security.dto.AuthResponse;
+import com.example.security.dto.IntrospectRequest;
+import com.example.security.dto.IntrospectResponse;
+import com.example.security.multitenancy.TenantContext;
+import com.example.security.security.ClientIpResolver;
+import com.example.security.security.LoginThrottle;
 import com.example.security.service.AuthService;
+import com.example.security.service.TokenIntrospectionService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collections;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
+    private final ClientIpResolver clientIp;
+    private final TokenIntrospectionService introspection;
 
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@RequestBody @Valid AuthRequest req,
                                               HttpServletRequest request,
                                               HttpServletResponse response){
+        // قبل أي وصول لقاعدة البيانات أو BCrypt (login نفسها @Transactional وتحجز اتصالًا)
+        String ip = clientIp.resolve(request.getRemoteAddr(), Collections.list(request.getHeaders(clientIp.header())));
+        loginThrottle.check(authService.resolveTenant(request), req.username(), ip);
         var t = authService.login(req.username(), req.password(), request, response);
         return ResponseEntity.ok(new AuthResponse(t.access(), 900));
     }
@@ -36,4 +51,12 @@ public class AuthController {
         authService.logout(request, response);
         return ResponseEntity.noContent().build();
     }
+
+    // للبوابات: التحقق من دفعة توكنات في طلب واحد (المتصل نفسه يحتاج توكن بهذه الصلاحية)
+    // النتائج محصورة بالـ tenant الخاص بتوكن المتصل
+    @PostMapping("/introspect")
+    @PreAuthorize("hasAuthority('PERM_TOKEN_INTROSPECT')")
+    public IntrospectResponse introspect(@RequestBody @Valid IntrospectRequest req){
+        return new IntrospectResponse(introspection.introspect(req.tokens(), TenantContext.getTenantId()));
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.security.controller;
+
+import com.example.security.security.JwtService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Public keys for offline verification of access tokens. Keys only change on restart, so the body
+ * and its ETag are computed once; clients revalidate with If-None-Match and get 304 until a rotation.
+ */
+@RestController
+public class JwksController {
+
+    private final Map<String, Object> jwks;
+    private final String etag;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtService jwtService,
+                          @Value("${security.jwt.jwks-max-age-seconds:300}") long maxAgeSeconds) {
+        this.jwks = jwtService.jwks();
+        CRC32 crc = new CRC32();
+        crc.update(jwks.toString().getBytes(StandardCharsets.UTF_8));
+        this.etag = "\"" + Long.toHexString(crc.getValue()) + "\"";
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok().cacheControl(cacheControl).eTag(etag).body(jwks);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.security.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/** Writes one JSON document per line straight to the response, so nothing is buffered per tenant. */
+final class NdjsonWriter implements AutoCloseable {
+
+    private final OutputStream out;
+    private final ObjectWriter writer;
+
+    NdjsonWriter(OutputStream out, ObjectMapper mapper) {
+        this.out = new BufferedOutputStream(out, 16 * 1024);
+        this.writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    void write(Object line) {
+        try {
+            writer.writeValue(out, line);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
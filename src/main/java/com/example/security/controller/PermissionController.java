@@ -2,11 +2,16 @@ package com.example.security.controller;
 
 import com.example.security.domain.Permission;
 import com.example.security.dto.CreatePermissionRequest;
+import com.example.security.dto.CursorPage;
 import com.example.security.service.PermissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -14,9 +19,11 @@ import java.util.List;
 public class PermissionController {
 
     private final PermissionService permissionService;
+    private final ObjectMapper objectMapper;
 
-    public PermissionController(PermissionService permissionService) {
+    public PermissionController(PermissionService permissionService, ObjectMapper objectMapper) {
         this.permissionService = permissionService;
+        this.objectMapper = objectMapper;
     }
 
     // TODO: إنشاء صلاحية جديدة - يتطلب PERM_PERMISSION_CREATE
@@ -30,10 +37,26 @@ public class PermissionController {
     @GetMapping
     @PreAuthorize("hasAuthority('PERM_PERMISSION_VIEW')")
     public List<Permission> all() {
-        System.out.println("inside all::::::::::::");
         return permissionService.listPermissions();
     }
 
+    // عرض الصلاحيات بصفحات (مؤشر after = آخر ID مستلم) - يتطلب PERM_PERMISSION_VIEW
+    @GetMapping(params = "limit")
+    @PreAuthorize("hasAuthority('PERM_PERMISSION_VIEW')")
+    public CursorPage<Permission> page(@RequestParam(required = false) Long after, @RequestParam int limit) {
+        return permissionService.pagePermissions(after, limit);
+    }
+
+    // تصدير جميع الصلاحيات بصيغة NDJSON - يتطلب PERM_PERMISSION_VIEW
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('PERM_PERMISSION_VIEW')")
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (var out = new NdjsonWriter(response.getOutputStream(), objectMapper)) {
+            permissionService.exportPermissions(out::write);
+        }
+    }
+
     // TODO: حذف صلاحية - يتطلب PERM_PERMISSION_DELETE
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('PERM_PERMISSION_DELETE')")
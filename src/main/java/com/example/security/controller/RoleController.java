@@ -2,12 +2,18 @@ package com.example.security.controller;
 
 import com.example.security.domain.Role;
 import com.example.security.dto.AssignPermissionsRequest;
+import com.example.security.dto.BulkAssignPermissionsRequest;
 import com.example.security.dto.CreateRoleRequest;
+import com.example.security.dto.CursorPage;
 import com.example.security.service.RoleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -15,9 +21,11 @@ import java.util.List;
 public class RoleController {
 
     private final RoleService roleService;
+    private final ObjectMapper objectMapper;
 
-    public RoleController(RoleService roleService) {
+    public RoleController(RoleService roleService, ObjectMapper objectMapper) {
         this.roleService = roleService;
+        this.objectMapper = objectMapper;
     }
 
     // TODO: إنشاء دور جديد - يتطلب PERM_ROLE_CREATE
@@ -34,6 +42,13 @@ public class RoleController {
         return roleService.assignPermissions(id, req);
     }
 
+    // ربط صلاحيات بعدة أدوار دفعة واحدة - نفس صلاحية الربط المفرد
+    @PostMapping("/permissions/bulk")
+    @PreAuthorize("hasAuthority('PERM_ROLE_CREATE')")
+    public List<Role> bulkAssign(@RequestBody @Valid BulkAssignPermissionsRequest req) {
+        return roleService.bulkAssignPermissions(req);
+    }
+
     // TODO: عرض جميع الأدوار - يتطلب PERM_ROLE_VIEW
     @GetMapping
     @PreAuthorize("hasAuthority('PERM_ROLE_VIEW')")
@@ -41,6 +56,23 @@ public class RoleController {
         return roleService.listRoles();
     }
 
+    // عرض الأدوار بصفحات (مؤشر after = آخر ID مستلم) - يتطلب PERM_ROLE_VIEW
+    @GetMapping(params = "limit")
+    @PreAuthorize("hasAuthority('PERM_ROLE_VIEW')")
+    public CursorPage<Role> page(@RequestParam(required = false) Long after, @RequestParam int limit) {
+        return roleService.pageRoles(after, limit);
+    }
+
+    // تصدير جميع الأدوار بصيغة NDJSON - يتطلب PERM_ROLE_VIEW
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('PERM_ROLE_VIEW')")
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (var out = new NdjsonWriter(response.getOutputStream(), objectMapper)) {
+            roleService.exportRoles(out::write);
+        }
+    }
+
     // TODO: حذف دور - يتطلب PERM_ROLE_DELETE
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('PERM_ROLE_DELETE')")
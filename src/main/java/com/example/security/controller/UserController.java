@@ -1,14 +1,24 @@
 package com.example.security.controller;
 
 import com.example.security.dto.CreateUserRequest;
+import com.example.security.dto.CursorPage;
 import com.example.security.dto.UserDto;
 import com.example.security.mapper.UserMapper;
+import com.example.security.service.UserImportService;
 import com.example.security.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -17,6 +27,8 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @PreAuthorize("hasAuthority('PERM_USER_CREATE')")
@@ -27,7 +39,34 @@ public class UserController {
     @GetMapping
     @PreAuthorize("hasAuthority('PERM_USER_VIEW')")
     public List<UserDto> all(){
-        System.out.println("inside all ::::::");
         return userService.listUsers();
     }
+
+    // body: text/csv (username,password) or NDJSON; response: one NDJSON result per input row
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('PERM_USER_CREATE')")
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.valueOf("text/csv"));
+        var in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (var out = new NdjsonWriter(response.getOutputStream(), objectMapper)) {
+            userImportService.importUsers(new UserImportReader(in, csv, objectMapper), out::write);
+        }
+    }
+
+    @GetMapping(params = "limit")
+    @PreAuthorize("hasAuthority('PERM_USER_VIEW')")
+    public CursorPage<UserDto> page(@RequestParam(required = false) Long after, @RequestParam int limit){
+        return userService.pageUsers(after, limit);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('PERM_USER_VIEW')")
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (var out = new NdjsonWriter(response.getOutputStream(), objectMapper)) {
+            userService.exportUsers(out::write);
+        }
+    }
 }
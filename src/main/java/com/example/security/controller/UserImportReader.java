@@ -0,0 +1,77 @@
+package com.example.security.controller;
+
+import com.example.security.dto.ImportUserRow;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads import rows lazily from the request body, one line at a time.
+ * CSV is {@code username,password} per line (optional header, no quoting; the password is everything
+ * after the first comma). NDJSON is one {@code {"username":..,"password":..}} object per line.
+ */
+final class UserImportReader implements Iterator<ImportUserRow> {
+
+    private final BufferedReader in;
+    private final boolean csv;
+    private final ObjectMapper mapper;
+    private int lineNo;
+    private ImportUserRow next;
+
+    UserImportReader(BufferedReader in, boolean csv, ObjectMapper mapper) {
+        this.in = in;
+        this.csv = csv;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                if (csv && lineNo == 1 && line.trim().equalsIgnoreCase("username,password")) continue;
+                next = csv ? fromCsv(line) : fromJson(line);
+                return true;
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ImportUserRow next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ImportUserRow r = next;
+        next = null;
+        return r;
+    }
+
+    private ImportUserRow fromCsv(String line) {
+        int comma = line.indexOf(',');
+        if (comma < 0) return new ImportUserRow(lineNo, null, null);
+        return new ImportUserRow(lineNo, line.substring(0, comma).trim(), line.substring(comma + 1));
+    }
+
+    private ImportUserRow fromJson(String line) {
+        try {
+            JsonNode n = mapper.readTree(line);
+            return new ImportUserRow(lineNo, text(n, "username"), text(n, "password"));
+        } catch (IOException e) {
+            return new ImportUserRow(lineNo, null, null);
+        }
+    }
+
+    private static String text(JsonNode n, String field) {
+        JsonNode v = n.get(field);
+        return v == null || v.isNull() ? null : v.asText();
+    }
+}
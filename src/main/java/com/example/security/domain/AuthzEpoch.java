@@ -0,0 +1,30 @@
+package com.example.security.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// authorization epoch of a tenant (USERNAME null) or of one user; tokens stamped below it are stale
+@Entity
+@Table(name = "AUTHZ_EPOCHS")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class AuthzEpoch {
+
+    // tenant, or tenant|username in lower case
+    @Id
+    @Column(name="SCOPE_KEY", length=160)
+    private String scopeKey;
+
+    @Column(name="TENANT_ID", length=64, nullable=false)
+    private String tenantId;
+
+    @Column(name="USERNAME", length=80)
+    private String username;
+
+    @Column(name="EPOCH", nullable=false)
+    private long epoch;
+
+    @Column(name="UPDATED_AT", nullable=false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.example.security.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// lease row per scheduled job: whoever moves LOCKED_UNTIL into the future owns the run
+@Entity
+@Table(name = "JOB_LOCKS")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class JobLock {
+
+    @Id
+    @Column(name="NAME", length=64)
+    private String name;
+
+    @Column(name="LOCKED_UNTIL", nullable=false)
+    private Instant lockedUntil;
+
+    @Column(name="LOCKED_BY", length=128)
+    private String lockedBy;
+}
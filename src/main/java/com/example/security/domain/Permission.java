@@ -4,16 +4,21 @@ import com.example.security.multitenancy.TenantEntityListener;
 import com.example.security.multitenancy.TenantScoped;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "PERMISSIONS",
        uniqueConstraints = {@UniqueConstraint(name="UK_PERMS_TENANT_NAME", columnNames={"TENANT_ID","NAME"})},
        indexes = {@Index(name="IDX_PERMS_TENANT", columnList="TENANT_ID")})
 @EntityListeners(TenantEntityListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "permissions")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Permission implements TenantScoped {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "permissions_seq")
+    @SequenceGenerator(name = "permissions_seq", sequenceName = "PERMISSIONS_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(name="TENANT_ID", length=64, nullable=false)
@@ -11,12 +11,15 @@ import java.time.Instant;
 
 // domain/RefreshToken.java
 @Entity
-@Table(name = "REFRESH_TOKENS", schema = "HR")
+@Table(name = "REFRESH_TOKENS", schema = "HR",
+       indexes = {@Index(name="IDX_REFRESH_EXPIRES", columnList="EXPIRES_AT")})
 @Data @Builder @NoArgsConstructor @AllArgsConstructor
 public class RefreshToken {
 
+    // one row per login/refresh: a pooled sequence keeps these inserts batchable and avoids a key round trip
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", schema = "HR", sequenceName = "REFRESH_TOKENS_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(name="JTI", nullable=false, unique=true, length=64)
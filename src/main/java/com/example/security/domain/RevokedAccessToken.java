@@ -0,0 +1,21 @@
+package com.example.security.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// a logged-out access token; the row is only needed until the token would have expired anyway
+@Entity
+@Table(name = "REVOKED_ACCESS_TOKENS",
+       indexes = {@Index(name="IDX_REVOKED_AT_EXPIRES", columnList="EXPIRES_AT")})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class RevokedAccessToken {
+
+    @Id
+    @Column(name="JTI", length=64)
+    private String jti;
+
+    @Column(name="EXPIRES_AT", nullable=false)
+    private Instant expiresAt;
+}
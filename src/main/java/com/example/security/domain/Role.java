@@ -4,6 +4,9 @@ import com.example.security.multitenancy.TenantEntityListener;
 import com.example.security.multitenancy.TenantScoped;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -12,10 +15,13 @@ import java.util.Set;
        uniqueConstraints = {@UniqueConstraint(name="UK_ROLES_TENANT_NAME", columnNames={"TENANT_ID","NAME"})},
        indexes = {@Index(name="IDX_ROLES_TENANT", columnList="TENANT_ID")})
 @EntityListeners(TenantEntityListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Role implements TenantScoped {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "roles_seq")
+    @SequenceGenerator(name = "roles_seq", sequenceName = "ROLES_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(name="TENANT_ID", length=64, nullable=false)
@@ -24,7 +30,10 @@ public class Role implements TenantScoped {
     @Column(nullable=false, length=60)
     private String name; // ROLE_*
 
+    // ids only in the collection region; the Permission entities themselves come from "permissions"
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role_permissions")
+    @BatchSize(size = 50)
     @JoinTable(name = "ROLE_PERMISSIONS",
       joinColumns = @JoinColumn(name="ROLE_ID"),
       inverseJoinColumns = @JoinColumn(name="PERM_ID"))
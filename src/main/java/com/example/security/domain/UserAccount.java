@@ -16,7 +16,10 @@ import java.util.Set;
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class UserAccount implements TenantScoped {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence: the DB sequence must use INCREMENT BY = allocationSize
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "USERS_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(name="TENANT_ID", length=64, nullable=false)
@@ -0,0 +1,21 @@
+package com.example.security.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Set;
+
+@Data
+public class BulkAssignPermissionsRequest {
+    // TODO: لكل دور قائمة الصلاحيات الكاملة التي يجب أن يحملها (استبدال)
+    @NotEmpty @Valid private List<Assignment> assignments;
+
+    @Data
+    public static class Assignment {
+        @NotNull private Long roleId;
+        @NotEmpty private Set<String> permissions;
+    }
+}
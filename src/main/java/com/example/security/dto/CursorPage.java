@@ -0,0 +1,6 @@
+package com.example.security.dto;
+
+import java.util.List;
+
+// nextCursor is the last id of this page, null when there is nothing after it
+public record CursorPage<T>(List<T> items, Long nextCursor) {}
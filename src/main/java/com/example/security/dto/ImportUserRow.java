@@ -0,0 +1,4 @@
+package com.example.security.dto;
+
+// one line of a bulk import body; username/password are null when the line could not be parsed
+public record ImportUserRow(int line, String username, String password) {}
@@ -0,0 +1,10 @@
+package com.example.security.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record IntrospectRequest(
+        @NotEmpty List<@NotBlank String> tokens
+) {}
@@ -0,0 +1,17 @@
+package com.example.security.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+// results[i] belongs to tokens[i] of the request
+public record IntrospectResponse(List<Result> results) {
+
+    // RFC 7662 style: an inactive token carries no claims, only why it is inactive
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Result(boolean active, String reason, Map<String, Object> claims) {
+        public static Result active(Map<String, Object> claims) { return new Result(true, null, claims); }
+        public static Result inactive(String reason) { return new Result(false, reason, null); }
+    }
+}
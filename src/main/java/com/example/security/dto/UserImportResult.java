@@ -0,0 +1,5 @@
+package com.example.security.dto;
+
+public record UserImportResult(int line, String username, Status status, Long id, String message) {
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+}
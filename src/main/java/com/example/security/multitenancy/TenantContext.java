@@ -1,9 +1,32 @@
 package com.example.security.multitenancy;
 
+/**
+ * Current tenant of the executing thread. Writers go through {@link #enter(String)}, which restores the
+ * previous value on close, so a scope can neither leak into the next request on a pooled Tomcat thread
+ * nor outlive the task on a virtual thread.
+ */
 public final class TenantContext {
     private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
     private TenantContext(){}
-    public static void setTenantId(String tenantId) { CURRENT.set(tenantId); }
+
     public static String getTenantId() { return CURRENT.get(); }
-    public static void clear() { CURRENT.remove(); }
+
+    public static Scope enter(String tenantId) {
+        Scope scope = new Scope(CURRENT.get());
+        if (tenantId == null) CURRENT.remove(); else CURRENT.set(tenantId);
+        return scope;
+    }
+
+    /** Last-resort reset at the edge of a request; everything else closes its own scope. */
+    static void clear() { CURRENT.remove(); }
+
+    public static final class Scope implements AutoCloseable {
+        private final String previous;
+        private Scope(String previous) { this.previous = previous; }
+
+        @Override
+        public void close() {
+            if (previous == null) CURRENT.remove(); else CURRENT.set(previous);
+        }
+    }
 }
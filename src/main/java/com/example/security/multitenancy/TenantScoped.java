@@ -2,4 +2,8 @@ package com.example.security.multitenancy;
 public interface TenantScoped {
     String getTenantId();
     void setTenantId(String tenantId);
+
+    default boolean belongsTo(String tenantId) {
+        return tenantId != null && tenantId.equals(getTenantId());
+    }
 }
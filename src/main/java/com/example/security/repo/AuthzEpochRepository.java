@@ -0,0 +1,33 @@
+package com.example.security.repo;
+
+import com.example.security.domain.AuthzEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface AuthzEpochRepository extends JpaRepository<AuthzEpoch, String> {
+
+    // one statement: the row lock serializes concurrent bumps, and the epoch never goes backwards
+    @Modifying
+    @Query(value = "UPDATE AUTHZ_EPOCHS SET EPOCH = GREATEST(EPOCH + 1, :nowMillis), UPDATED_AT = :now " +
+                   "WHERE SCOPE_KEY = :key", nativeQuery = true)
+    int raise(@Param("key") String key, @Param("nowMillis") long nowMillis, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = "INSERT INTO AUTHZ_EPOCHS (SCOPE_KEY, TENANT_ID, USERNAME, EPOCH, UPDATED_AT) " +
+                   "SELECT :key, :tenant, :username, 0, :now FROM DUAL " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM AUTHZ_EPOCHS WHERE SCOPE_KEY = :key)", nativeQuery = true)
+    int insertIfAbsent(@Param("key") String key, @Param("tenant") String tenant,
+                       @Param("username") String username, @Param("now") Instant now);
+
+    @Query("select e.epoch from AuthzEpoch e where e.scopeKey = :key")
+    long epochOf(@Param("key") String key);
+
+    // user rows outlive every token stamped before them after one access-token lifetime; tenant rows stay
+    @Modifying
+    @Query("delete from AuthzEpoch e where e.username is not null and e.updatedAt < :cutoff")
+    int deleteUserEpochsBefore(@Param("cutoff") Instant cutoff);
+}
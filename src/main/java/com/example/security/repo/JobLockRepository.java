@@ -0,0 +1,23 @@
+package com.example.security.repo;
+
+import com.example.security.domain.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    // 1 = lease taken (previous one expired), 0 = another node holds it or the row does not exist yet
+    @Modifying
+    @Query("update JobLock l set l.lockedUntil = :until, l.lockedBy = :owner " +
+           "where l.name = :name and l.lockedUntil <= :now")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query("update JobLock l set l.lockedUntil = :now where l.name = :name and l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
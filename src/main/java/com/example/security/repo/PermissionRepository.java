@@ -1,10 +1,18 @@
 package com.example.security.repo;
 
 import com.example.security.domain.Permission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PermissionRepository extends JpaRepository<Permission, Long> {
 
@@ -12,7 +20,21 @@ public interface PermissionRepository extends JpaRepository<Permission, Long> {
 
     boolean existsByNameAndTenantId(String name, String tenantId);
 
+    // callers keep names under Oracle's 1000-element IN-list limit
+    List<Permission> findByTenantIdAndNameIn(String tenantId, Collection<String> names);
+
     List<Permission> findAllByTenantId(String tenantId);
 
+    @Query("select p.name from Permission p where p.tenantId = :tenantId")
+    List<String> findNamesByTenantId(@Param("tenantId") String tenantId);
+
+    List<Permission> findByTenantIdAndIdGreaterThanOrderByIdAsc(String tenantId, Long afterId, Limit limit);
+
+    // [permId, permName] ordered by id
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select p.id, p.name from Permission p where p.tenantId = :tenantId order by p.id")
+    Stream<Object[]> streamRows(@Param("tenantId") String tenantId);
+
     long deleteByIdAndTenantId(Long id, String tenantId);
 }
@@ -2,10 +2,29 @@ package com.example.security.repo;
 
 import com.example.security.domain.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.time.Instant;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByJtiAndTenantId(String jti, String tenantId);
+
+    // compare-and-set: 1 if this call revoked a live token, 0 if it was unknown, already revoked or expired
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true " +
+           "where t.jti = :jti and t.tenantId = :tenantId and t.revoked = false and t.expiresAt > :now")
+    int revokeIfActive(@Param("jti") String jti, @Param("tenantId") String tenantId, @Param("now") Instant now);
+
+    @Query("select t.user.id from RefreshToken t where t.jti = :jti and t.tenantId = :tenantId")
+    Optional<Long> findUserIdByJtiAndTenantId(@Param("jti") String jti, @Param("tenantId") String tenantId);
+
     long deleteByExpiresAtBefore(Instant cutoff);
+
+    // one bounded chunk, deleted in the database: the derived deleteBy above loads every entity first
+    @Modifying
+    @Query(value = "DELETE FROM HR.REFRESH_TOKENS WHERE EXPIRES_AT < :cutoff AND ROWNUM <= :limit", nativeQuery = true)
+    int deleteExpiredChunk(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
@@ -0,0 +1,27 @@
+package com.example.security.repo;
+
+import com.example.security.domain.RevokedAccessToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, String> {
+
+    @Query("select r.jti from RevokedAccessToken r where r.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") Instant now);
+
+    // a plain insert instead of save(): an assigned id makes save() a merge with a SELECT first.
+    // NOT EXISTS keeps a second logout with the same bearer from failing the caller's transaction
+    @Modifying
+    @Query(value = "INSERT INTO REVOKED_ACCESS_TOKENS (JTI, EXPIRES_AT) SELECT :jti, :expiresAt FROM DUAL " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM REVOKED_ACCESS_TOKENS WHERE JTI = :jti)", nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("delete from RevokedAccessToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,10 +1,19 @@
 package com.example.security.repo;
 
 import com.example.security.domain.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
 
@@ -12,7 +21,30 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
 
     Optional<Role> findByIdAndTenantId(Long id, String tenantId);
 
+    // findById is served from the "roles" region, which is keyed by id alone: scope the hit to the tenant here
+    default Optional<Role> findCachedByIdAndTenantId(Long id, String tenantId) {
+        return findById(id).filter(r -> r.belongsTo(tenantId));
+    }
+
     List<Role> findAllByTenantId(String tenantId);
 
+    @Query("select r.name from Role r where r.tenantId = :tenantId")
+    List<String> findNamesByTenantId(@Param("tenantId") String tenantId);
+
+    @EntityGraph(attributePaths = "permissions")
+    List<Role> findWithPermissionsByTenantId(String tenantId);
+
+    @EntityGraph(attributePaths = "permissions")
+    List<Role> findWithPermissionsByTenantIdAndIdIn(String tenantId, Collection<Long> ids);
+
+    List<Role> findByTenantIdAndIdGreaterThanOrderByIdAsc(String tenantId, Long afterId, Limit limit);
+
+    // [roleId, roleName, permId, permName] ordered by role
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select r.id, r.name, p.id, p.name from Role r left join r.permissions p " +
+           "where r.tenantId = :tenantId order by r.id")
+    Stream<Object[]> streamRolePermissionRows(@Param("tenantId") String tenantId);
+
     long deleteByIdAndTenantId(Long id, String tenantId);
 }
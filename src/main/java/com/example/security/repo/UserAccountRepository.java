@@ -1,18 +1,54 @@
 package com.example.security.repo;
 
 import com.example.security.domain.UserAccount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserAccountRepository extends JpaRepository<UserAccount, Long> {
 
     Optional<UserAccount> findByUsernameIgnoreCaseAndTenantId(String username, String tenantId);
 
+    // user + roles in one select; each role's permissions then come from the second-level cache
+    // (role_permissions / permissions regions), batch-loaded by 50 on a miss
+    @EntityGraph(attributePaths = "roles")
+    Optional<UserAccount> findWithRolesByUsernameIgnoreCaseAndTenantId(String username, String tenantId);
+
     boolean existsByUsernameIgnoreCaseAndTenantId(String username, String tenantId);
 
+    // batch form of existsByUsernameIgnoreCaseAndTenantId: pass lower-cased names, get back the ones already taken
+    @Query("select lower(u.username) from UserAccount u " +
+           "where u.tenantId = :tenantId and lower(u.username) in :names")
+    List<String> findExistingUsernames(@Param("tenantId") String tenantId, @Param("names") Collection<String> names);
+
     List<UserAccount> findAllByTenantId(String tenantId);
 
+    // roles only: pair with RoleRepository.findWithPermissionsByTenantId to avoid a users x roles x perms product
+    @EntityGraph(attributePaths = "roles")
+    List<UserAccount> findWithRolesByTenantId(String tenantId);
+
+    // keyset page on ID; no fetch graph here, a collection fetch would make Hibernate apply the limit in memory
+    List<UserAccount> findByTenantIdAndIdGreaterThanOrderByIdAsc(String tenantId, Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "roles")
+    List<UserAccount> findWithRolesByIdIn(Collection<Long> ids);
+
+    // [userId, username, enabled, roleId] ordered by user; scalar rows never enter the persistence context
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select u.id, u.username, u.enabled, r.id from UserAccount u left join u.roles r " +
+           "where u.tenantId = :tenantId order by u.id")
+    Stream<Object[]> streamUserRoleRows(@Param("tenantId") String tenantId);
+
     long deleteByIdAndTenantId(Long id, String tenantId);
 }
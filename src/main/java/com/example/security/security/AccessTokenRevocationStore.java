@@ -0,0 +1,89 @@
+package com.example.security.security;
+
+import com.example.security.repo.RevokedAccessTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of REVOKED_ACCESS_TOKENS for the request path. Each node rebuilds an immutable
+ * Bloom filter + exact set from the table every {@code security.revocation.refresh-ms}, so a revocation
+ * made on another node is seen within that interval; revocations made here are visible once their transaction
+ * commits, so a rolled-back logout never revokes a token on this node only. The reload
+ * is read-only: expired rows are deleted by RefreshTokenPurgeJob under its lease, on one node per run.
+ */
+@Component
+public class AccessTokenRevocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenRevocationStore.class);
+
+    private record Snapshot(BloomFilter bloom, Set<String> exact) {}
+
+    private final RevokedAccessTokenRepository repo;
+    private final TransactionTemplate tx;
+    private volatile Snapshot snapshot = new Snapshot(new BloomFilter(1, 0.01), Set.of());
+    // local revocations not yet in a snapshot: jti -> expiry
+    private final ConcurrentHashMap<String, Instant> pending = new ConcurrentHashMap<>();
+
+    public AccessTokenRevocationStore(RevokedAccessTokenRepository repo, PlatformTransactionManager txManager) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) return false;
+        Snapshot s = snapshot;
+        if (s.bloom().mightContain(jti) && s.exact().contains(jti)) return true;
+        return !pending.isEmpty() && pending.containsKey(jti);
+    }
+
+    /** Persists the revocation (joins the caller's transaction) and applies it locally after commit. */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) return;
+        repo.insertIfAbsent(jti, expiresAt);
+        afterCommit(() -> pending.put(jti, expiresAt));
+    }
+
+    /** Deletes rows whose token has expired; called by the leased purge job only. */
+    public int purgeExpired() {
+        Integer n = tx.execute(s -> repo.deleteExpired(Instant.now()));
+        return n == null ? 0 : n;
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.refresh-ms:5000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        try {
+            List<String> active = repo.findActiveJtis(now);
+            BloomFilter bloom = new BloomFilter(active.size(), 0.01);
+            active.forEach(bloom::put);
+            Set<String> exact = Set.copyOf(active);
+            snapshot = new Snapshot(bloom, exact);
+            // only drop what the new snapshot covers: a revoke that raced the load stays pending
+            pending.entrySet().removeIf(e -> exact.contains(e.getKey()) || !e.getValue().isAfter(now));
+        } catch (RuntimeException e) {
+            log.warn("Could not reload revoked access tokens, keeping previous snapshot: {}", e.toString());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { action.run(); }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.security.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Timers and failure counters of the auth pipeline, all tagged with a tenant. A tenant gets its own tag value
+ * only once it is verified, i.e. it came out of a signed token or a successful login; before that it reports
+ * as "unknown", so made-up tenant headers neither add series nor take slots from real tenants. Only the first
+ * {@code security.metrics.max-tenants} verified tenants get their own value, the rest report as "other", so a
+ * tenant-per-customer deployment cannot explode the number of series either.
+ */
+@Component
+public class AuthMetrics {
+
+    private final MeterRegistry registry;
+    private final int maxTenants;
+    // verified tenant -> its tag value; only real tenants get here, so the map is bounded by the tenant count
+    private final ConcurrentHashMap<String, String> verified = new ConcurrentHashMap<>();
+    private final AtomicInteger slots = new AtomicInteger();
+
+    public AuthMetrics(MeterRegistry registry, @Value("${security.metrics.max-tenants:50}") int maxTenants) {
+        this.registry = registry;
+        this.maxTenants = maxTenants;
+    }
+
+    /** Call only with a tenant taken from a verified token or a successful login, never from a raw header. */
+    public void verifiedTenant(String tenant) {
+        if (tenant == null || tenant.isBlank() || verified.containsKey(tenant)) return;
+        verified.computeIfAbsent(tenant, t -> slots.getAndIncrement() < maxTenants ? t : "other");
+    }
+
+    public String tenantTag(String tenant) {
+        if (tenant == null || tenant.isBlank()) return "none";
+        return verified.getOrDefault(tenant, "unknown");
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /** {@code auth.phase{op,phase,tenant}}: one step of login/refresh/logout. */
+    public <T> T phase(String op, String phase, String tenant, Supplier<T> body) {
+        Timer.Sample s = Timer.start(registry);
+        try {
+            return body.get();
+        } finally {
+            s.stop(registry.timer("auth.phase", Tags.of("op", op, "phase", phase, "tenant", tenantTag(tenant))));
+        }
+    }
+
+    public void phase(String op, String phase, String tenant, Runnable body) {
+        phase(op, phase, tenant, () -> { body.run(); return null; });
+    }
+
+    public Timer timer(String name, String tenant, String... tags) {
+        return registry.timer(name, Tags.of(tags).and("tenant", tenantTag(tenant)));
+    }
+
+    public void stop(Timer.Sample sample, String name, String tenant, String... tags) {
+        sample.stop(timer(name, tenant, tags));
+    }
+
+    public void record(String name, String tenant, double amount, String... tags) {
+        registry.summary(name, Tags.of(tags).and("tenant", tenantTag(tenant))).record(amount);
+    }
+
+    /** {@code auth.failures{op,reason,tenant}}. */
+    public void failure(String op, String tenant, Throwable cause) {
+        failure(op, tenant, reason(cause));
+    }
+
+    public void failure(String op, String tenant, String reason) {
+        registry.counter("auth.failures", "op", op, "reason", reason, "tenant", tenantTag(tenant)).increment();
+    }
+
+    // closed set of values: an exception class name per tag value would be unbounded
+    public static String reason(Throwable t) {
+        if (t instanceof ExpiredJwtException) return "expired";
+        if (t instanceof io.jsonwebtoken.security.SecurityException) return "bad_signature";
+        if (t instanceof MalformedJwtException || t instanceof UnsupportedJwtException) return "malformed";
+        if (t instanceof JwtException) return "invalid_token";
+        if (t instanceof BadCredentialsException) return "bad_credentials";
+        if (t instanceof UsernameNotFoundException) return "user_not_found";
+        if (t instanceof DisabledException) return "disabled";
+        if (t instanceof LockedException) return "locked";
+        if (t instanceof HashingPoolSaturatedException) return "overloaded";
+        if (t instanceof LoginThrottledException) return "throttled";
+        if (t instanceof IllegalArgumentException) return "invalid";
+        return "error";
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.security.security;
+
+/**
+ * Fixed-size, immutable-after-build Bloom filter over strings. {@code mightContain == false} is exact,
+ * so the common case (token not revoked) is answered without touching the backing set.
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final int numBits;
+    private final int numHashes;
+
+    BloomFilter(int expectedItems, double falsePositiveRate) {
+        int n = Math.max(1, expectedItems);
+        int m = (int) Math.min(Integer.MAX_VALUE - 64,
+                Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        this.numBits = Math.max(64, m);
+        this.bits = new long[(numBits + 63) >>> 6];
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+    }
+
+    void put(String s) {
+        long h1 = mix(s.hashCode());
+        long h2 = mix(altHash(s)) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, numBits);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String s) {
+        long h1 = mix(s.hashCode());
+        long h2 = mix(altHash(s)) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, numBits);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // second, independent string hash (String.hashCode is the first and is cached on the String)
+    private static long altHash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // murmur3 fmix64
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.security.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The client address for per-IP limits. {@code X-Forwarded-For} is honoured only when the peer is one of
+ * {@code security.client-ip.trusted-proxies} (addresses or CIDR ranges): the list is walked right to left and
+ * the first hop that is not a trusted proxy is the client. With no trusted proxies configured the header is
+ * ignored, since any client can send it.
+ */
+@Component
+public class ClientIpResolver {
+
+    private final List<IpAddressMatcher> trustedProxies = new ArrayList<>();
+    private final String header;
+
+    public ClientIpResolver(@Value("${security.client-ip.trusted-proxies:}") List<String> trustedProxies,
+                            @Value("${security.client-ip.header:X-Forwarded-For}") String header) {
+        for (String p : trustedProxies) {
+            if (!p.isBlank()) this.trustedProxies.add(new IpAddressMatcher(p.trim()));
+        }
+        this.header = header;
+    }
+
+    public String header() {
+        return header;
+    }
+
+    /** @param forwardedFor every value of {@link #header()} in arrival order, possibly comma-separated */
+    public String resolve(String remoteAddr, List<String> forwardedFor) {
+        if (remoteAddr == null || !isTrusted(remoteAddr) || forwardedFor == null) return remoteAddr;
+        List<String> hops = new ArrayList<>();
+        for (String value : forwardedFor) {
+            for (String hop : value.split(",")) {
+                if (!hop.isBlank()) hops.add(hop.trim());
+            }
+        }
+        String client = remoteAddr;
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i);
+            // a hop that is not an address (unknown, obfuscated, garbage) ends the chain we can vouch for
+            if (!isIpLiteral(hop)) return client;
+            client = hop;
+            if (!isTrusted(hop)) return hop;
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String addr) {
+        if (!isIpLiteral(addr)) return false;
+        for (IpAddressMatcher m : trustedProxies) {
+            if (m.matches(addr)) return true;
+        }
+        return false;
+    }
+
+    // IpAddressMatcher resolves what it is given; never let a header value trigger a DNS lookup
+    private static boolean isIpLiteral(String s) {
+        if (s.isEmpty() || s.length() > 45) return false;
+        boolean colon = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ':') colon = true;
+            else if (!(c == '.' || Character.digit(c, 16) >= 0)) return false;
+        }
+        return colon || s.chars().allMatch(c -> c == '.' || (c >= '0' && c <= '9'));
+    }
+}
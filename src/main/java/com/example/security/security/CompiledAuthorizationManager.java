@@ -0,0 +1,121 @@
+package com.example.security.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@code @PreAuthorize} without SpEL on the hot path: {@code hasAuthority('X')} and
+ * {@code hasAnyAuthority('X', 'Y')} are turned into a set lookup once per method (eagerly for controllers via
+ * {@link #precompile(Class)}); any other expression keeps going through the standard SpEL manager.
+ * With an {@link IndexedAuthenticationToken} each decision is a hash lookup per required authority.
+ */
+public class CompiledAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final Pattern AUTHORITY_CALL = Pattern.compile("\\s*has(Any)?Authority\\((.*)\\)\\s*");
+    private static final Pattern LITERAL_ARGS = Pattern.compile("\\s*'[^']*'\\s*(,\\s*'[^']*'\\s*)*");
+    private static final Pattern LITERAL = Pattern.compile("'([^']*)'");
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private interface Rule {
+        AuthorizationResult apply(Supplier<Authentication> authentication, MethodInvocation invocation);
+    }
+
+    private final PreAuthorizeAuthorizationManager spel;
+    private final ConcurrentHashMap<MethodClassKey, Rule> rules = new ConcurrentHashMap<>();
+    // bumped inside computeIfAbsent, which runs concurrently for different methods
+    private final AtomicInteger compiled = new AtomicInteger();
+    private final AtomicInteger interpreted = new AtomicInteger();
+
+    public CompiledAuthorizationManager(PreAuthorizeAuthorizationManager spel) {
+        this.spel = spel;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Class<?> target = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), target);
+        return rules.computeIfAbsent(new MethodClassKey(method, target), k -> compile(method, target))
+                .apply(authentication, invocation);
+    }
+
+    @Override
+    @Deprecated
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        AuthorizationResult r = authorize(authentication, invocation);
+        return r == null || r instanceof AuthorizationDecision ? (AuthorizationDecision) r
+                : new AuthorizationDecision(r.isGranted());
+    }
+
+    /** Resolves the rules of every public method of {@code type}; returns how many were annotated. */
+    public int precompile(Class<?> type) {
+        int n = 0;
+        for (Method m : type.getMethods()) {
+            if (m.getDeclaringClass() == Object.class || Modifier.isStatic(m.getModifiers())) continue;
+            if (find(m, type) == null) continue;
+            rules.computeIfAbsent(new MethodClassKey(m, type), k -> compile(m, type));
+            n++;
+        }
+        return n;
+    }
+
+    public int compiledCount() { return compiled.get(); }
+
+    public int interpretedCount() { return interpreted.get(); }
+
+    private Rule compile(Method method, Class<?> target) {
+        PreAuthorize annotation = find(method, target);
+        if (annotation == null) return (a, mi) -> null; // abstain, as the SpEL manager does
+        Matcher call = AUTHORITY_CALL.matcher(annotation.value());
+        if (call.matches() && LITERAL_ARGS.matcher(call.group(2)).matches()) {
+            Set<String> required = new LinkedHashSet<>();
+            Matcher lit = LITERAL.matcher(call.group(2));
+            while (lit.find()) required.add(lit.group(1));
+            if (call.group(1) != null || required.size() == 1) {
+                compiled.incrementAndGet();
+                String[] anyOf = required.toArray(String[]::new);
+                return (a, mi) -> hasAny(a.get(), anyOf) ? GRANTED : DENIED;
+            }
+        }
+        interpreted.incrementAndGet();
+        return spel::authorize;
+    }
+
+    private static PreAuthorize find(Method method, Class<?> target) {
+        PreAuthorize onMethod = AnnotatedElementUtils.findMergedAnnotation(method, PreAuthorize.class);
+        return onMethod != null ? onMethod : AnnotatedElementUtils.findMergedAnnotation(target, PreAuthorize.class);
+    }
+
+    private static boolean hasAny(Authentication authentication, String[] anyOf) {
+        if (authentication == null) return false;
+        if (authentication instanceof IndexedAuthenticationToken indexed) {
+            Set<String> names = indexed.getAuthorityNames();
+            for (String r : anyOf) if (names.contains(r)) return true;
+            return false;
+        }
+        for (GrantedAuthority g : authentication.getAuthorities()) {
+            for (String r : anyOf) if (r.equals(g.getAuthority())) return true;
+        }
+        return false;
+    }
+}
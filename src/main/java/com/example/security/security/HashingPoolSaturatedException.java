@@ -0,0 +1,8 @@
+package com.example.security.security;
+
+/** The password hashing pool and its queue are full; mapped to 503 with Retry-After by ApiErrors. */
+public class HashingPoolSaturatedException extends RuntimeException {
+    public HashingPoolSaturatedException() {
+        super("Too many concurrent password operations, retry shortly");
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.security.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/** Authenticated token that also keeps its authority names hashed, for {@link CompiledAuthorizationManager}. */
+public class IndexedAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final Set<String> authorityNames;
+
+    public IndexedAuthenticationToken(Object principal, Collection<? extends GrantedAuthority> authorities) {
+        super(principal, null, authorities);
+        Set<String> names = new HashSet<>(authorities.size() * 2);
+        for (GrantedAuthority a : authorities) names.add(a.getAuthority());
+        this.authorityNames = Set.copyOf(names);
+    }
+
+    public Set<String> getAuthorityNames() {
+        return authorityNames;
+    }
+}
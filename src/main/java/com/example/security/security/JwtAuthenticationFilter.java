@@ -1,7 +1,11 @@
 package com.example.security.security;
 
 import com.example.security.multitenancy.TenantContext;
+import com.example.security.service.AuthorityDictionary;
+import com.example.security.service.AuthorizationEpochs;
 import com.example.security.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,14 +13,17 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -24,35 +31,92 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final AccessTokenRevocationStore revocations;
+    private final AuthMetrics metrics;
+    private final AuthorityDictionary authorityDictionary;
+    private final AuthorizationEpochs authzEpochs;
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    // stateless: build the principal from the verified claims, no DB lookup per request
+    @Value("${security.jwt.stateless:false}")
+    private boolean stateless;
+
+    // token stamped before the last RBAC change: reload = re-read authorities from the DB, reject = 401
+    @Value("${security.authz-epoch.on-stale:reload}")
+    private String onStale;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
+        String tenant = null;
         String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
+            String t = null;
+            boolean verified = false;
+            Timer.Sample verify = metrics.start();
             try {
-                String tenant = jwtService.extractTenant(token);
-                if (tenant != null && !tenant.isBlank()) {
-                    TenantContext.setTenantId(tenant);
-                }
-                String username = jwtService.extractUsername(token);
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails user = userDetailsService.loadUserByUsername(username);
-                    var authToken = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                Claims claims = jwtService.parse(token).getBody();
+                t = jwtService.extractTenant(claims);
+                if (t != null && t.isBlank()) t = null;
+                metrics.verifiedTenant(t);
+                metrics.stop(verify, "auth.jwt.verify", t, "outcome", "valid");
+                verified = true;
+                if (!jwtService.isAccessToken(claims)) {
+                    log.debug("Rejected non-access token {} presented as bearer", claims.getId());
+                    metrics.failure("filter", t, "wrong_type");
+                } else if (revocations.isRevoked(claims.getId())) {
+                    log.debug("Rejected revoked access token {}", claims.getId());
+                    metrics.failure("filter", t, "revoked");
+                } else {
+                    try (TenantContext.Scope ignored = TenantContext.enter(t)) {
+                        authenticate(claims, t, request);
+                    }
+                    tenant = t;
                 }
             } catch (Exception ex) {
-                // don't silently swallow errors - log for diagnostics and ensure tenant context isn't left stale
+                // don't silently swallow errors - log for diagnostics; the chain then runs without a tenant
                 log.warn("JWT authentication failed: {}", ex.toString());
                 log.debug("Full stacktrace:", ex);
-                try { TenantContext.clear(); } catch (Exception e) { log.debug("Error clearing TenantContext", e); }
+                if (!verified) metrics.stop(verify, "auth.jwt.verify", null, "outcome", "invalid");
+                metrics.failure("filter", t, ex);
+            }
+        }
+
+        // the tenant is bound only for this request's chain and restored afterwards, also on virtual threads
+        try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private void authenticate(Claims claims, String tenant, HttpServletRequest request) {
+        String username = claims.getSubject();
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            boolean current = authzEpochs.isCurrent(tenant, username, claims);
+            if (!current && "reject".equalsIgnoreCase(onStale)) {
+                log.debug("Rejected access token {} stamped before the last authorization change", claims.getId());
+                metrics.failure("filter", tenant, "stale");
+                return;
             }
+            // stale claims never feed the principal; the DB has the post-change authorities
+            UserDetails user = stateless && current ? fromClaims(username, tenant, claims) : null;
+            if (user == null) user = userDetailsService.loadUserByUsername(username);
+            var authToken = new IndexedAuthenticationToken(user, user.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
+    }
 
-        chain.doFilter(request, response);
+    // null when a compact token's dictionary version is unknown here: the caller loads the user instead
+    private UserDetails fromClaims(String username, String tenant, Claims claims) {
+        List<String> names = claims.containsKey(AuthorityDictionary.CLAIM_BITS)
+                ? authorityDictionary.decode(tenant, claims.get(AuthorityDictionary.CLAIM_VERSION, String.class),
+                        claims.get(AuthorityDictionary.CLAIM_BITS, String.class))
+                : jwtService.extractAuthorities(claims);
+        if (names == null) return null;
+        var authorities = names.stream().map(SimpleGrantedAuthority::new).toList();
+        // password is never needed past this point; the signature already vouched for the subject
+        return User.withUsername(username).password("").authorities(authorities).build();
     }
 }
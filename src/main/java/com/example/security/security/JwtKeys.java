@@ -0,0 +1,109 @@
+package com.example.security.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ResourceUtils;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.*;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.util.*;
+
+/**
+ * ES256 key material. Every EC entry of the keystore is a verification key whose alias is its {@code kid}, and
+ * must be on P-256 (secp256r1): ES256 is defined on that curve only, and the JWKS advertises it as such;
+ * the entry named by {@code activeKid} (which must hold a private key) signs new tokens.
+ * Rotation: add the new key pair, switch active-kid, and drop the old alias once its tokens have expired.
+ */
+final class JwtKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeys.class);
+
+    final String activeKid;
+    final PrivateKey signingKey;
+    final Map<String, ECPublicKey> publicKeys;
+
+    private JwtKeys(String activeKid, PrivateKey signingKey, Map<String, ECPublicKey> publicKeys) {
+        this.activeKid = activeKid;
+        this.signingKey = signingKey;
+        this.publicKeys = Collections.unmodifiableMap(publicKeys);
+    }
+
+    static JwtKeys load(String location, String password, String activeKid) {
+        try (InputStream in = ResourceUtils.getURL(location).openStream()) {
+            KeyStore ks = KeyStore.getInstance(location.endsWith(".jks") ? "JKS" : "PKCS12");
+            char[] pw = password.toCharArray();
+            ks.load(in, pw);
+            Map<String, ECPublicKey> pub = new LinkedHashMap<>();
+            for (String alias : Collections.list(ks.aliases())) {
+                Certificate cert = ks.getCertificate(alias);
+                if (cert != null && cert.getPublicKey() instanceof ECPublicKey ec) {
+                    if (!isP256(ec.getParams())) {
+                        throw new IllegalStateException("Keystore entry '" + alias + "' is not a P-256 key; ES256 requires secp256r1");
+                    }
+                    pub.put(alias, ec);
+                }
+            }
+            if (!pub.containsKey(activeKid) || !(ks.getKey(activeKid, pw) instanceof PrivateKey signing)) {
+                throw new IllegalStateException("Keystore has no EC key pair for active kid '" + activeKid + "'");
+            }
+            return new JwtKeys(activeKid, signing, pub);
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot load JWT keystore " + location, e);
+        }
+    }
+
+    private static boolean isP256(ECParameterSpec p) throws GeneralSecurityException {
+        AlgorithmParameters ap = AlgorithmParameters.getInstance("EC");
+        ap.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec ref = ap.getParameterSpec(ECParameterSpec.class);
+        return p.getCurve().equals(ref.getCurve()) && p.getGenerator().equals(ref.getGenerator())
+                && p.getOrder().equals(ref.getOrder()) && p.getCofactor() == ref.getCofactor();
+    }
+
+    // no keystore configured: tokens die with the process and other nodes cannot verify them
+    static JwtKeys ephemeral() {
+        try {
+            KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+            gen.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair kp = gen.generateKeyPair();
+            String kid = "ephemeral-" + UUID.randomUUID();
+            log.warn("security.jwt.keystore not set: signing ES256 tokens with a throw-away key ({})", kid);
+            return new JwtKeys(kid, kp.getPrivate(), Map.of(kid, (ECPublicKey) kp.getPublic()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate EC key", e);
+        }
+    }
+
+    /** RFC 7517 JWK set of the public keys (RFC 7518 section 6.2 for the EC members). */
+    Map<String, Object> jwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        publicKeys.forEach((kid, k) -> {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("use", "sig");
+            jwk.put("alg", "ES256");
+            jwk.put("kid", kid);
+            jwk.put("x", coordinate(k.getW().getAffineX()));
+            jwk.put("y", coordinate(k.getW().getAffineY()));
+            keys.add(jwk);
+        });
+        return Map.of("keys", keys);
+    }
+
+    // unsigned, left-padded to the 32-byte field size
+    private static String coordinate(BigInteger v) {
+        byte[] raw = v.toByteArray();
+        byte[] out = new byte[32];
+        int n = Math.min(raw.length, 32);
+        System.arraycopy(raw, raw.length - n, out, 32 - n, n);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out);
+    }
+}
@@ -1,67 +1,156 @@
 package com.example.security.security;
 
+import com.example.security.service.AuthorityDictionary;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
+    // both token kinds share the HMAC key, so the type has to be signed into the token itself
+    public static final String TOKEN_USE = "token_use";
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
     private final SecretKey secretKey;
     private final long accessExpSeconds;
     private final long refreshExpSeconds;
     private final String tenantClaim;
+    // JwtParser is immutable and thread-safe: build it once instead of per parse()
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedCache; // null when disabled
+    // ES256 keys for access tokens; null in HS256 mode. Refresh tokens never leave us and stay HS256.
+    private final JwtKeys ecKeys;
 
     public JwtService(
             @Value("${security.jwt.secret}") String secret,
             @Value("${security.jwt.access-exp-seconds}") long accessExpSeconds,
             @Value("${security.jwt.refresh-exp-seconds}") long refreshExpSeconds,
-            @Value("${security.jwt.tenant-claim:tenant}") String tenantClaim
+            @Value("${security.jwt.tenant-claim:tenant}") String tenantClaim,
+            @Value("${security.jwt.verified-cache-size:0}") int verifiedCacheSize,
+            @Value("${security.jwt.algorithm:HS256}") String algorithm,
+            @Value("${security.jwt.keystore:}") String keystore,
+            @Value("${security.jwt.keystore-password:}") String keystorePassword,
+            @Value("${security.jwt.active-kid:}") String activeKid
     ){
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.accessExpSeconds = accessExpSeconds;
         this.refreshExpSeconds = refreshExpSeconds;
         this.tenantClaim = tenantClaim;
+        if ("ES256".equalsIgnoreCase(algorithm)) {
+            this.ecKeys = keystore.isBlank() ? JwtKeys.ephemeral() : JwtKeys.load(keystore, keystorePassword, activeKid);
+        } else if ("HS256".equalsIgnoreCase(algorithm)) {
+            this.ecKeys = null;
+        } else {
+            throw new IllegalStateException("Unsupported security.jwt.algorithm: " + algorithm);
+        }
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return resolveKey(header);
+            }
+        }).build();
+        this.verifiedCache = verifiedCacheSize > 0 ? new VerifiedTokenCache(verifiedCacheSize) : null;
     }
 
+    // jti makes a single access token revocable (AccessTokenRevocationStore)
     public String generateAccess(String username, String tenantId, List<String> authorities){
+        return generateAccess(username, tenantId, Map.<String, Object>of("authorities", authorities));
+    }
+
+    // authorityClaims: the "authorities" list or the compact pair from AuthorityDictionary.encode
+    public String generateAccess(String username, String tenantId, Map<String, Object> authorityClaims){
         Instant now = Instant.now();
         return Jwts.builder()
                 .setSubject(username)
-                .addClaims(Map.of(tenantClaim, tenantId, "authorities", authorities))
+                .setId(UUID.randomUUID().toString())
+                .addClaims(authorityClaims)
+                .claim(TOKEN_USE, ACCESS)
+                .claim(tenantClaim, tenantId)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusSeconds(accessExpSeconds)))
-                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .signWith(ecKeys == null ? secretKey : ecKeys.signingKey,
+                          ecKeys == null ? SignatureAlgorithm.HS256 : SignatureAlgorithm.ES256)
+                .setHeaderParam(JwsHeader.KEY_ID, ecKeys == null ? null : ecKeys.activeKid)
                 .compact();
     }
 
-    public String generateRefresh(String username, String tenantId, String jti){
+    // uid lets refresh rotation reference the user without looking it up again
+    public String generateRefresh(String username, String tenantId, String jti, Long userId){
         Instant now = Instant.now();
         return Jwts.builder()
                 .setSubject(username)
                 .setId(jti)
+                .claim(TOKEN_USE, REFRESH)
                 .claim(tenantClaim, tenantId)
+                .claim("uid", userId)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusSeconds(refreshExpSeconds)))
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry and returns the claims. Callers that need several claims
+     * should parse once and use the {@code Claims} overloads below rather than the per-token extractors.
+     */
     public Jws<Claims> parse(String token){
-        return Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token);
+        if (verifiedCache == null) return parser.parseClaimsJws(token);
+        Jws<Claims> cached = verifiedCache.get(token);
+        if (cached != null) return cached;
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        verifiedCache.put(token, jws);
+        return jws;
+    }
+
+    /** Public verification keys as a JWK set; empty in HS256 mode. */
+    public Map<String, Object> jwks(){
+        return ecKeys == null ? Map.of("keys", List.of()) : ecKeys.jwks();
+    }
+
+    // kid -> our EC public key; no kid -> the HMAC secret (refresh tokens, and access tokens from HS256 mode).
+    // JJWT refuses an HS* header with an EC key and vice versa, so the alg header cannot pick a weaker check.
+    private Key resolveKey(JwsHeader<?> header){
+        String kid = header.getKeyId();
+        if (kid == null) return secretKey;
+        Key k = ecKeys == null ? null : ecKeys.publicKeys.get(kid);
+        if (k == null) throw new JwtException("Unknown signing key id: " + kid);
+        return k;
     }
 
     public String extractUsername(String token){ return parse(token).getBody().getSubject(); }
-    public String extractTenant(String token){
-        Object v = parse(token).getBody().get(tenantClaim);
+    public String extractTenant(String token){ return extractTenant(parse(token).getBody()); }
+    public String extractJti(String token){ return parse(token).getBody().getId(); }
+
+    public String extractTenant(Claims claims){
+        Object v = claims.get(tenantClaim);
         return v == null ? null : v.toString();
     }
-    public String extractJti(String token){ return parse(token).getBody().getId(); }
+    /** Only access tokens may be presented as bearer tokens or reported active by introspection. */
+    public boolean isAccessToken(Claims claims){
+        Object use = claims.get(TOKEN_USE);
+        if (use != null) return ACCESS.equals(use);
+        // issued before token_use: access tokens always carry authorities, refresh tokens never do
+        return claims.containsKey("authorities") || claims.containsKey(AuthorityDictionary.CLAIM_BITS);
+    }
+    public Long extractUserId(Claims claims){
+        Object v = claims.get("uid");
+        return v instanceof Number n ? n.longValue() : null;
+    }
+    public List<String> extractAuthorities(Claims claims){
+        Object v = claims.get("authorities");
+        if (!(v instanceof Collection<?> c)) return List.of();
+        return c.stream().map(String::valueOf).toList();
+    }
 }
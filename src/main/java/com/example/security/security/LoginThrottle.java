@@ -0,0 +1,121 @@
+package com.example.security.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets per tenant+username and per client IP, checked before AuthService.login so that
+ * refused attempts never reach the database or BCrypt. A bucket that has refilled completely is
+ * indistinguishable from a missing one, so each bucket expires exactly when it is full again; a bucket
+ * that is still limiting someone is never dropped. Once {@code max-entries} buckets are live, new keys
+ * share one overflow bucket per scope instead of evicting anyone's.
+ */
+@Component
+public class LoginThrottle {
+
+    private record State(double tokens, long updatedNanos) {}
+
+    private static final String OVERFLOW = "\u0000overflow";
+
+    private final class Limiter {
+        final Cache<String, State> buckets;
+        final double capacity;
+        final double perNano;
+        final Counter rejected;
+        final Counter overflowed;
+
+        Limiter(String scope, int capacity, int refillPerMinute, MeterRegistry registry) {
+            this.capacity = capacity;
+            this.perNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.buckets = Caffeine.newBuilder().expireAfter(new Expiry<String, State>() {
+                @Override
+                public long expireAfterCreate(String key, State s, long now) { return untilFull(s, now); }
+                @Override
+                public long expireAfterUpdate(String key, State s, long now, long remaining) { return untilFull(s, now); }
+                @Override
+                public long expireAfterRead(String key, State s, long now, long remaining) { return remaining; }
+            }).build();
+            this.rejected = Counter.builder("auth.login.throttled").tag("scope", scope)
+                    .description("Login attempts refused by the throttle").register(registry);
+            this.overflowed = Counter.builder("auth.login.throttle.overflow").tag("scope", scope)
+                    .description("Login attempts limited through the shared overflow bucket").register(registry);
+        }
+
+        /** @return 0 if a token was taken, otherwise seconds until one is available */
+        long tryAcquire(String key) {
+            if (buckets.estimatedSize() >= maxEntries && buckets.getIfPresent(key) == null) {
+                overflowed.increment();
+                key = OVERFLOW;
+            }
+            long[] wait = {0};
+            buckets.asMap().compute(key, (k, s) -> {
+                long now = System.nanoTime();
+                double tokens = s == null ? capacity : Math.min(capacity, s.tokens() + (now - s.updatedNanos()) * perNano);
+                if (tokens < 1) {
+                    wait[0] = Math.max(1, (long) Math.ceil((1 - tokens) / perNano / 1e9));
+                    return s;
+                }
+                return new State(tokens - 1, now);
+            });
+            if (wait[0] > 0) rejected.increment();
+            return wait[0];
+        }
+
+        long untilFull(State s, long now) {
+            double left = s.updatedNanos() - now + (capacity - s.tokens()) / perNano;
+            return (long) Math.max(0, Math.min(left, Long.MAX_VALUE / 2)); // no refill: kept until evicted
+        }
+    }
+
+    private final Limiter perUser;
+    private final Limiter perIp;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final AuthMetrics metrics;
+
+    public LoginThrottle(@Value("${security.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${security.login-throttle.user.capacity:5}") int userCapacity,
+                         @Value("${security.login-throttle.user.refill-per-minute:5}") int userRefill,
+                         @Value("${security.login-throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${security.login-throttle.ip.refill-per-minute:60}") int ipRefill,
+                         @Value("${security.login-throttle.max-entries:100000}") int maxEntries,
+                         MeterRegistry registry, AuthMetrics metrics) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.metrics = metrics;
+        this.perUser = new Limiter("user", userCapacity, userRefill, registry);
+        this.perIp = new Limiter("ip", ipCapacity, ipRefill, registry);
+    }
+
+    /**
+     * Takes one token from both buckets or throws {@link LoginThrottledException}.
+     * @param clientIp resolved through {@link ClientIpResolver}, not the raw peer address behind a proxy
+     */
+    public void check(String tenant, String username, String clientIp) {
+        if (!enabled) return;
+        long wait = perIp.tryAcquire(clientIp == null ? "?" : clientIp);
+        if (wait == 0) {
+            wait = perUser.tryAcquire(tenant + '|' + (username == null ? "" : username.toLowerCase(Locale.ROOT)));
+        }
+        if (wait > 0) {
+            metrics.failure("login", tenant, "throttled");
+            throw new LoginThrottledException(wait);
+        }
+    }
+
+    // expiry is applied during normal traffic; this only releases refilled buckets after a quiet spell
+    @Scheduled(fixedDelayString = "${security.login-throttle.sweep-ms:60000}")
+    public void evictIdle() {
+        perUser.buckets.cleanUp();
+        perIp.buckets.cleanUp();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.security.security;
+
+/** Login attempt refused by {@link LoginThrottle}; mapped to 429 with Retry-After by ApiErrors. */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many login attempts, retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
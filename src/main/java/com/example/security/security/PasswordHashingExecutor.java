@@ -0,0 +1,92 @@
+package com.example.security.security;
+
+import com.example.security.multitenancy.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing/verification on a CPU-sized pool with a bounded queue, so a login burst
+ * occupies at most {@code threads} cores and anything beyond the queue is refused immediately
+ * ({@link HashingPoolSaturatedException}) instead of tying up every servlet thread.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final Timer queueTime;
+    private final AuthMetrics metrics;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(@Value("${security.hashing.threads:0}") int threads,
+                                   @Value("${security.hashing.queue-capacity:0}") int queueCapacity,
+                                   MeterRegistry registry, AuthMetrics metrics) {
+        int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int q = queueCapacity > 0 ? queueCapacity : n * 4;
+        this.pool = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(q),
+                new CustomizableThreadFactory("pwd-hash-"), new ThreadPoolExecutor.AbortPolicy());
+        this.queueTime = Timer.builder("auth.hashing.queue")
+                .description("Time a password operation waited for a hashing thread").register(registry);
+        this.metrics = metrics; // auth.hashing.run{tenant}: time spent hashing or verifying a password
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Password operations refused because the hashing queue was full").register(registry);
+        Gauge.builder("auth.hashing.queue.size", pool, p -> p.getQueue().size()).register(registry);
+    }
+
+    public <T> T call(Supplier<T> task) {
+        long enqueued = System.nanoTime();
+        Timer runTime = metrics.timer("auth.hashing.run", TenantContext.getTenantId());
+        Future<T> f;
+        try {
+            f = pool.submit(() -> {
+                queueTime.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+                return runTime.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingPoolSaturatedException();
+        }
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            f.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /** Same encoder, but encode/matches run on this pool. */
+    public PasswordEncoder offload(PasswordEncoder delegate) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) { return call(() -> delegate.encode(raw)); }
+            @Override
+            public boolean matches(CharSequence raw, String encoded) { return call(() -> delegate.matches(raw, encoded)); }
+            @Override
+            public boolean upgradeEncoding(String encoded) { return delegate.upgradeEncoding(encoded); }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.security.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of tokens whose signature was already verified, keyed by the SHA-256 of the raw token
+ * so the token itself is never held as a key. Each entry expires with its token's {@code exp}; at
+ * {@code maxSize} Caffeine evicts by frequency in amortized steps, so a miss never scans the cache.
+ */
+class VerifiedTokenCache {
+
+    private record Entry(Jws<Claims> jws, long expiresAtMillis) {}
+
+    private final Cache<String, Entry> entries;
+
+    VerifiedTokenCache(int maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry e, long now) { return untilExp(e); }
+                    @Override
+                    public long expireAfterUpdate(String key, Entry e, long now, long remaining) { return untilExp(e); }
+                    @Override
+                    public long expireAfterRead(String key, Entry e, long now, long remaining) { return remaining; }
+                })
+                .build();
+    }
+
+    Jws<Claims> get(String token) {
+        Entry e = entries.getIfPresent(digest(token));
+        // exp is wall-clock time, Caffeine's expiry runs on nanoTime: the check below is the authoritative one
+        if (e == null || e.expiresAtMillis() <= System.currentTimeMillis()) return null;
+        return e.jws();
+    }
+
+    void put(String token, Jws<Claims> jws) {
+        Date exp = jws.getBody().getExpiration();
+        if (exp == null) return; // never cache tokens that don't expire
+        entries.put(digest(token), new Entry(jws, exp.getTime()));
+    }
+
+    long size() {
+        return entries.estimatedSize();
+    }
+
+    private static long untilExp(Entry e) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, e.expiresAtMillis() - System.currentTimeMillis()));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -5,12 +5,17 @@ import com.example.security.domain.UserAccount;
 import com.example.security.multitenancy.TenantContext;
 import com.example.security.repo.RefreshTokenRepository;
 import com.example.security.repo.UserAccountRepository;
+import com.example.security.security.AccessTokenRevocationStore;
+import com.example.security.security.AuthMetrics;
 import com.example.security.security.JwtService;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -20,7 +25,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -32,6 +39,10 @@ public class AuthService {
     private final JwtService jwt;
     private final RefreshTokenRepository refreshTokenRepo;
     private final UserAccountRepository userAccountRepo;
+    private final AccessTokenRevocationStore revocations;
+    private final AuthMetrics metrics;
+    private final AuthorityDictionary authorityDictionary;
+    private final AuthorizationEpochs authzEpochs;
 
     @Value("${security.jwt.access-exp-seconds:900}")
     private long accessExpSeconds;
@@ -56,104 +67,155 @@ public class AuthService {
     public Tokens login(String username, String password,
                         HttpServletRequest request, HttpServletResponse response) {
         String tenant = resolveTenant(request);
-        TenantContext.setTenantId(tenant);
-        try {
-            Authentication auth = authManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(username, password));
+        Timer.Sample total = metrics.start();
+        String outcome = "failure";
+        try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+            // قبل تحميل المستخدم: الصلاحيات المحمّلة لا تكون أقدم من هذا الـ epoch
+            long epoch = authzEpochs.current(tenant, username);
+            Authentication auth = metrics.phase("login", "authenticate", tenant, () -> authManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)));
+            metrics.verifiedTenant(tenant);
             UserDetails principal = (UserDetails) auth.getPrincipal();
             List<String> authorities = principal.getAuthorities()
                     .stream().map(GrantedAuthority::getAuthority).toList();
 
             // ابني الـ JWTs
             String jti = UUID.randomUUID().toString();
-            String access = jwt.generateAccess(principal.getUsername(), tenant, authorities);
-            String refresh = jwt.generateRefresh(principal.getUsername(), tenant, jti);
+            String access = metrics.phase("login", "sign", tenant,
+                    () -> jwt.generateAccess(principal.getUsername(), tenant, accessClaims(tenant, authorities, epoch)));
 
             // اربط التوكن بكـيان المستخدم
-            UserAccount userEntity = userAccountRepo
-                    .findByUsernameIgnoreCaseAndTenantId(principal.getUsername(), tenant)
-                    .orElseThrow(() -> new IllegalStateException("User entity not found"));
-
-            refreshTokenRepo.save(RefreshToken.builder()
-                    .jti(jti)
-                    .user(userEntity)
-                    .tenantId(tenant)
-                    .expiresAt(Instant.now().plusSeconds(refreshExpSeconds))
-                    .revoked(false)
-                    .build());
+            String refresh = metrics.phase("login", "persist", tenant, () -> {
+                UserAccount userEntity = userAccountRepo
+                        .findByUsernameIgnoreCaseAndTenantId(principal.getUsername(), tenant)
+                        .orElseThrow(() -> new IllegalStateException("User entity not found"));
+                refreshTokenRepo.save(RefreshToken.builder()
+                        .jti(jti)
+                        .user(userEntity)
+                        .tenantId(tenant)
+                        .expiresAt(Instant.now().plusSeconds(refreshExpSeconds))
+                        .revoked(false)
+                        .build());
+                return jwt.generateRefresh(principal.getUsername(), tenant, jti, userEntity.getId());
+            });
 
             attachRefreshCookie(response, refresh);
+            outcome = "success";
             return new Tokens(access, accessExpSeconds);
+        } catch (RuntimeException e) {
+            metrics.failure("login", tenant, e);
+            throw e;
         } finally {
-            TenantContext.clear();
+            metrics.stop(total, "auth.op", tenant, "op", "login", "outcome", outcome);
         }
     }
 
     @Transactional
     public Tokens refresh(HttpServletRequest request, HttpServletResponse response) {
-        String raw = readRefreshCookie(request);
-        var claims = jwt.parse(raw).getBody();
-        String username = claims.getSubject();
-        String tenant = String.valueOf(claims.get("tenant"));
-        String jti = claims.getId();
-
-        TenantContext.setTenantId(tenant);
+        Timer.Sample total = metrics.start();
+        String outcome = "failure";
+        String tenant = null;
+        String reason = null;
         try {
-            var db = refreshTokenRepo.findByJtiAndTenantId(jti, tenant)
-                    .orElseThrow(() -> new IllegalArgumentException("Refresh revoked"));
-            if (db.isRevoked() || db.getExpiresAt().isBefore(Instant.now())) {
-                throw new IllegalArgumentException("Refresh expired or revoked");
+            Timer.Sample parse = metrics.start();
+            var claims = jwt.parse(readRefreshCookie(request)).getBody();
+            String username = claims.getSubject();
+            tenant = jwt.extractTenant(claims);
+            metrics.verifiedTenant(tenant);
+            String jti = claims.getId();
+            metrics.stop(parse, "auth.phase", tenant, "op", "refresh", "phase", "parse");
+
+            try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+                String t = tenant;
+                // أوقف القديم بعملية واحدة (compare-and-set): طلبان متزامنان بنفس التوكن لا ينجح إلا أحدهما
+                if (metrics.phase("refresh", "revoke", t, () -> refreshTokenRepo.revokeIfActive(jti, t, Instant.now())) == 0) {
+                    reason = "revoked";
+                    throw new IllegalArgumentException("Refresh expired or revoked");
+                }
+                // توكنات أقدم من claim الـ uid: اقرأ المعرّف من الصف نفسه
+                Long claimedUserId = jwt.extractUserId(claims);
+                Long userId = claimedUserId != null ? claimedUserId
+                        : refreshTokenRepo.findUserIdByJtiAndTenantId(jti, tenant)
+                                .orElseThrow(() -> new IllegalStateException("User entity not found"));
+
+                long epoch = authzEpochs.current(t, username);
+                var user = metrics.phase("refresh", "load_user", t, () -> userDetailsService.loadUserByUsername(username));
+                var authorities = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+                String newJti = UUID.randomUUID().toString();
+                String access = metrics.phase("refresh", "sign", t, () -> jwt.generateAccess(username, t, accessClaims(t, authorities, epoch)));
+                String newRefresh = jwt.generateRefresh(username, tenant, newJti, userId);
+
+                // مرجع فقط (بدون SELECT) للمفتاح الأجنبي USER_ID
+                metrics.phase("refresh", "persist", t, () -> refreshTokenRepo.save(RefreshToken.builder()
+                        .jti(newJti)
+                        .user(userAccountRepo.getReferenceById(userId))
+                        .tenantId(t)
+                        .expiresAt(Instant.now().plusSeconds(refreshExpSeconds))
+                        .revoked(false)
+                        .build()));
+
+                attachRefreshCookie(response, newRefresh);
+                outcome = "success";
+                return new Tokens(access, accessExpSeconds);
             }
-
-            // أوقف القديم ودوّر الجديد
-            db.setRevoked(true);
-            refreshTokenRepo.save(db);
-
-            var userEntity = userAccountRepo
-                    .findByUsernameIgnoreCaseAndTenantId(username, tenant)
-                    .orElseThrow(() -> new IllegalStateException("User entity not found"));
-
-            var user = userDetailsService.loadUserByUsername(username);
-            var authorities = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
-
-            String newJti = UUID.randomUUID().toString();
-            String access = jwt.generateAccess(username, tenant, authorities);
-            String newRefresh = jwt.generateRefresh(username, tenant, newJti);
-
-            refreshTokenRepo.save(RefreshToken.builder()
-                    .jti(newJti)
-                    .user(userEntity)
-                    .tenantId(tenant)
-                    .expiresAt(Instant.now().plusSeconds(refreshExpSeconds))
-                    .revoked(false)
-                    .build());
-
-            attachRefreshCookie(response, newRefresh);
-            return new Tokens(access, accessExpSeconds);
+        } catch (RuntimeException e) {
+            if (reason != null) metrics.failure("refresh", tenant, reason);
+            else metrics.failure("refresh", tenant, e);
+            throw e;
         } finally {
-            TenantContext.clear();
+            metrics.stop(total, "auth.op", tenant, "op", "refresh", "outcome", outcome);
         }
     }
 
     @Transactional
     public void logout(HttpServletRequest request, HttpServletResponse response) {
         // Let exceptions propagate so the global `ApiErrors` handler can map them to structured responses.
-        String raw = readRefreshCookie(request);
-        var claims = jwt.parse(raw).getBody();
-        String tenant = String.valueOf(claims.get("tenant"));
-        String jti = claims.getId();
-
+        Timer.Sample total = metrics.start();
+        String outcome = "failure";
+        String tenant = null;
         try {
-            TenantContext.setTenantId(tenant);
-            refreshTokenRepo.findByJtiAndTenantId(jti, tenant)
-                    .ifPresent(rt -> { rt.setRevoked(true); refreshTokenRepo.save(rt); });
+            var claims = jwt.parse(readRefreshCookie(request)).getBody();
+            tenant = jwt.extractTenant(claims);
+            metrics.verifiedTenant(tenant);
+            String jti = claims.getId();
+
+            try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+                String t = tenant;
+                metrics.phase("logout", "revoke_access", t, () -> revokeBearer(request));
+                metrics.phase("logout", "revoke_refresh", t, () -> refreshTokenRepo.findByJtiAndTenantId(jti, t)
+                        .ifPresent(rt -> { rt.setRevoked(true); refreshTokenRepo.save(rt); }));
+            }
+            outcome = "success";
+        } catch (RuntimeException e) {
+            metrics.failure("logout", tenant, e);
+            throw e;
         } finally {
-            TenantContext.clear();
             clearRefreshCookie(response);
+            metrics.stop(total, "auth.op", tenant, "op", "logout", "outcome", outcome);
+        }
+    }
+
+    // الصلاحيات (قائمة أو bitset مضغوط) + الـ epoch الذي حُمّلت عنده
+    private Map<String, Object> accessClaims(String tenant, List<String> authorities, long epoch) {
+        Map<String, Object> claims = new HashMap<>(authorityDictionary.encode(tenant, authorities));
+        claims.put(AuthorizationEpochs.CLAIM, epoch);
+        return claims;
+    }
+
+    // أوقف الـ access token المرسل أيضًا حتى وقت انتهائه، وإلا يبقى صالحًا بعد الخروج
+    private void revokeBearer(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) return;
+        try {
+            var claims = jwt.parse(header.substring(7)).getBody();
+            revocations.revoke(claims.getId(), claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            // expired or not ours: nothing to revoke
         }
     }
 
-    private String resolveTenant(HttpServletRequest request) {
+    public String resolveTenant(HttpServletRequest request) {
         String t = request.getHeader(tenantHeader);
         return (t == null || t.isBlank()) ? defaultTenant : t;
     }
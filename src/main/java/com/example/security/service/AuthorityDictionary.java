@@ -0,0 +1,143 @@
+package com.example.security.service;
+
+import com.example.security.repo.PermissionRepository;
+import com.example.security.repo.RoleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant numbering of every role and permission name, used to put authorities into access tokens as a
+ * bitset ({@link #CLAIM_BITS}) instead of a string array. Names are sorted, so every node derives the same
+ * dictionary from the same rows; the version is a hash of that list and travels in {@link #CLAIM_VERSION}.
+ * A token whose version this node cannot resolve decodes to {@code null} and the caller falls back to a
+ * lookup: a stale dictionary can cost a query, never grant or drop an authority.
+ */
+@Component
+public class AuthorityDictionary {
+
+    public static final String CLAIM_BITS = "authz";
+    public static final String CLAIM_VERSION = "authz_v";
+
+    private record Dictionary(String version, List<String> names, Map<String, Integer> index) {}
+
+    private final PermissionRepository permRepo;
+    private final RoleRepository roleRepo;
+    private final boolean enabled;
+    private final long reloadIntervalMs;
+
+    private final ConcurrentHashMap<String, Dictionary> current = new ConcurrentHashMap<>();
+    // tenant|version -> dictionary, so tokens issued just before a change still expand on this node
+    private final ConcurrentHashMap<String, Dictionary> byVersion = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> lastLoad = new ConcurrentHashMap<>();
+
+    public AuthorityDictionary(PermissionRepository permRepo, RoleRepository roleRepo,
+                               @Value("${security.jwt.compact-authorities:false}") boolean enabled,
+                               @Value("${security.jwt.authority-dictionary.min-reload-ms:5000}") long reloadIntervalMs) {
+        this.permRepo = permRepo;
+        this.roleRepo = roleRepo;
+        this.enabled = enabled;
+        this.reloadIntervalMs = reloadIntervalMs;
+    }
+
+    /** Authority claims for an access token: the bitset pair when enabled, otherwise the plain list. */
+    public Map<String, Object> encode(String tenant, Collection<String> authorities) {
+        if (enabled) {
+            Dictionary d = current.computeIfAbsent(tenant, this::load);
+            BitSet bits = bits(d, authorities);
+            if (bits == null) bits = bits(d = reload(tenant), authorities); // created after our last load
+            if (bits != null) {
+                return Map.of(CLAIM_BITS, Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray()),
+                        CLAIM_VERSION, d.version());
+            }
+        }
+        return Map.of("authorities", List.copyOf(authorities));
+    }
+
+    /** Authority names of a compact token, or {@code null} when its dictionary version is unknown here. */
+    public List<String> decode(String tenant, String version, String encoded) {
+        if (tenant == null || version == null || encoded == null) return null;
+        Dictionary d = byVersion.get(tenant + '|' + version);
+        if (d == null) {
+            // newer dictionary built on another node: reload, but not on every request carrying that token
+            Long last = lastLoad.get(tenant);
+            if (last != null && System.currentTimeMillis() - last < reloadIntervalMs) return null;
+            d = reload(tenant);
+            if (!d.version().equals(version)) return null;
+        }
+        BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(encoded));
+        if (bits.length() > d.names().size()) return null;
+        List<String> out = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) out.add(d.names().get(i));
+        return out;
+    }
+
+    /** Roles or permissions of the tenant were created or deleted; applied after commit. */
+    public void invalidate(String tenant) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    current.remove(tenant);
+                }
+            });
+        } else {
+            current.remove(tenant);
+        }
+    }
+
+    private Dictionary reload(String tenant) {
+        Dictionary d = load(tenant);
+        current.put(tenant, d);
+        return d;
+    }
+
+    private Dictionary load(String tenant) {
+        List<String> names = new ArrayList<>(roleRepo.findNamesByTenantId(tenant));
+        names.addAll(permRepo.findNamesByTenantId(tenant));
+        names.sort(null);
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) index.put(names.get(i), i);
+        Dictionary d = new Dictionary(version(names), List.copyOf(names), index);
+        if (byVersion.size() > 1000) byVersion.clear();
+        byVersion.put(tenant + '|' + d.version(), d);
+        lastLoad.put(tenant, System.currentTimeMillis());
+        return d;
+    }
+
+    private static BitSet bits(Dictionary d, Collection<String> authorities) {
+        BitSet bits = new BitSet(d.names().size());
+        for (String a : authorities) {
+            Integer i = d.index().get(a);
+            if (i == null) return null;
+            bits.set(i);
+        }
+        return bits;
+    }
+
+    private static String version(List<String> names) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (String n : names) {
+                md.update(n.getBytes(StandardCharsets.UTF_8));
+                md.update((byte) '\n');
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(md.digest()).substring(0, 11);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
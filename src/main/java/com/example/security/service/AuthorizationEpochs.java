@@ -0,0 +1,192 @@
+package com.example.security.service;
+
+import com.example.security.domain.AuthzEpoch;
+import com.example.security.domain.Permission;
+import com.example.security.domain.Role;
+import com.example.security.repo.AuthzEpochRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorization epochs per tenant and per user. RBAC writes bump them, access tokens carry the value
+ * current at issuance ({@link #CLAIM}), and a token stamped below its tenant's or user's epoch is stale. The
+ * filter checks this against memory only. Each node reloads AUTHZ_EPOCHS every {@code security.authz-epoch.refresh-ms}
+ * (read-only). A raise made by another node first evicts this node's second-level cache regions of Role,
+ * Role.permissions and Permission (per JVM, never invalidated by the other node's write), then clears the
+ * matching entries in this node's UserDetailsCache, so the reload reads the committed grants.
+ * Expired user rows are deleted by {@link RefreshTokenPurgeJob} under its lease, on one node per run.
+ *
+ * <p>An epoch is the bump time in epoch millis, raised by at least 1 over the previous value of its row. It
+ * therefore only grows per tenant and per user, and it stays ahead of every stamp even after a purged user
+ * row comes back.
+ */
+@Component
+public class AuthorizationEpochs {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationEpochs.class);
+
+    public static final String CLAIM = "authz_e";
+
+    private final AuthzEpochRepository repo;
+    private final UserDetailsCache userDetailsCache;
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate newTx;
+    private final boolean enabled;
+    private final long userRowTtlMillis;
+    // scope key -> epoch; values only ever grow (merge with max)
+    private final ConcurrentHashMap<String, Long> epochs = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public AuthorizationEpochs(AuthzEpochRepository repo, UserDetailsCache userDetailsCache,
+                               EntityManagerFactory emf, PlatformTransactionManager txManager,
+                               @Value("${security.authz-epoch.enabled:true}") boolean enabled,
+                               @Value("${security.jwt.access-exp-seconds:900}") long accessExpSeconds) {
+        this.repo = repo;
+        this.userDetailsCache = userDetailsCache;
+        this.emf = emf;
+        this.tx = new TransactionTemplate(txManager);
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        // clock skew between nodes is covered by the extra minute
+        this.userRowTtlMillis = (accessExpSeconds + 60) * 1000;
+    }
+
+    /**
+     * The stamp for a token about to be issued. Read it before the user's authorities are loaded: this node's
+     * cache was cleared up to this value, so the authorities can only be newer than the stamp, never older.
+     */
+    public long current(String tenant, String username) {
+        if (!enabled || tenant == null) return 0;
+        long t = epochs.getOrDefault(tenant, 0L);
+        if (username == null) return t;
+        return Math.max(t, epochs.getOrDefault(userKey(tenant, username), 0L));
+    }
+
+    /** False when the tenant or the user was bumped after the token was stamped; unstamped tokens count as 0. */
+    public boolean isCurrent(String tenant, String username, Claims claims) {
+        if (!enabled) return true;
+        return stamp(claims) >= current(tenant, username);
+    }
+
+    public static long stamp(Claims claims) {
+        Object v = claims.get(CLAIM);
+        return v instanceof Number n ? n.longValue() : 0;
+    }
+
+    /** Every token of the tenant becomes stale once the caller's transaction commits. */
+    public void bumpTenant(String tenant) {
+        bump(tenant, tenant, null);
+    }
+
+    /** Every token of one user becomes stale once the caller's transaction commits, e.g. after their roles change. */
+    public void bumpUser(String tenant, String username) {
+        bump(userKey(tenant, username), tenant, username.toLowerCase(Locale.ROOT));
+    }
+
+    // joins the caller's transaction. Callers drop their UserDetailsCache entries first: synchronizations run
+    // in registration order, so a login never sees the new epoch together with cached pre-change authorities
+    private void bump(String key, String tenant, String username) {
+        if (!enabled) return;
+        Long epoch = tx.execute(s -> {
+            // a missing row (first bump, or a user row purged meanwhile) is created and the UPDATE retried
+            for (int attempt = 0; attempt < 3; attempt++) {
+                Instant now = Instant.now();
+                if (repo.raise(key, now.toEpochMilli(), now) == 1) return repo.epochOf(key);
+                createRow(key, tenant, username);
+            }
+            throw new IllegalStateException("Could not raise authorization epoch " + key);
+        });
+        afterCommit(() -> epochs.merge(key, epoch, Math::max));
+    }
+
+    // committed on its own: a concurrent creator's duplicate then fails this insert only, not the caller's work
+    private void createRow(String key, String tenant, String username) {
+        try {
+            newTx.executeWithoutResult(s -> repo.insertIfAbsent(key, tenant, username, Instant.now()));
+        } catch (DataIntegrityViolationException e) {
+            // created by the other bump; the retried UPDATE waits on its row lock
+        }
+    }
+
+    /** Deletes user rows older than one access-token lifetime; called by the leased purge job only. */
+    public int purgeUserRows() {
+        if (!enabled) return 0;
+        Instant cutoff = Instant.now().minusMillis(userRowTtlMillis);
+        Integer n = tx.execute(s -> repo.deleteUserEpochsBefore(cutoff));
+        return n == null ? 0 : n;
+    }
+
+    @Scheduled(fixedDelayString = "${security.authz-epoch.refresh-ms:5000}")
+    public void refresh() {
+        if (!enabled) return;
+        long stale = System.currentTimeMillis() - userRowTtlMillis;
+        try {
+            List<AuthzEpoch> rows = repo.findAll();
+            for (AuthzEpoch row : rows) {
+                // not purged yet, but older than any live token's stamp
+                if (row.getUsername() != null && row.getEpoch() < stale) continue;
+                Long known = epochs.get(row.getScopeKey());
+                if (known != null && known >= row.getEpoch()) continue;
+                // raised by another node: drop what this node cached before raising the epoch here
+                if (loaded) {
+                    if (row.getUsername() == null) {
+                        evictRbacRegions();
+                        userDetailsCache.invalidateTenant(row.getTenantId());
+                    } else {
+                        userDetailsCache.invalidateUser(row.getTenantId(), row.getUsername());
+                    }
+                }
+                epochs.merge(row.getScopeKey(), row.getEpoch(), Math::max);
+            }
+            // expired user rows: older than any live token's stamp, so forgetting them changes nothing
+            epochs.entrySet().removeIf(e -> e.getKey().indexOf('|') >= 0 && e.getValue() < stale);
+            loaded = true;
+        } catch (RuntimeException e) {
+            log.warn("Could not reload authorization epochs, keeping previous values: {}", e.toString());
+        }
+    }
+
+    // the regions hold ids, not tenants: evict them whole (RBAC writes are rare, the next reads refill them)
+    private void evictRbacRegions() {
+        Cache l2 = emf.unwrap(SessionFactory.class).getCache();
+        l2.evictCollectionData(Role.class.getName() + ".permissions");
+        l2.evictEntityData(Role.class);
+        l2.evictEntityData(Permission.class);
+    }
+
+    /** Row key of a user's epoch; the tenant's own row is keyed by the tenant id. */
+    public static String userKey(String tenant, String username) {
+        return tenant + '|' + username.toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { action.run(); }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.security.service;
 
+import com.example.security.config.QueryCounter;
 import com.example.security.domain.UserAccount;
 import com.example.security.repo.UserAccountRepository;
 import com.example.security.multitenancy.TenantContext;
+import com.example.security.security.AuthMetrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
@@ -14,9 +17,11 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserAccountRepository userRepo;
+    private final UserDetailsCache cache;
+    private final AuthMetrics metrics;
 
     @Override
     @Transactional(readOnly = true)
@@ -26,17 +31,49 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("Missing tenant for user lookup");
         }
 
-        UserAccount ua = userRepo.findByUsernameIgnoreCaseAndTenantId(username, tenant)
+        Timer.Sample sample = metrics.start();
+        UserDetails cached = cache.get(tenant, username);
+        if (cached != null) {
+            metrics.stop(sample, "auth.user_details.load", tenant, "cache", "hit");
+            return cached;
+        }
+        long queriesBefore = QueryCounter.current();
+        try {
+            return load(tenant, username);
+        } finally {
+            metrics.stop(sample, "auth.user_details.load", tenant, "cache", "miss");
+            metrics.record("auth.user_details.queries", tenant, QueryCounter.current() - queriesBefore);
+        }
+    }
+
+    private UserDetails load(String tenant, String username) {
+        UserAccount ua = userRepo.findWithRolesByUsernameIgnoreCaseAndTenantId(username, tenant)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found for tenant"));
 
         Set<String> authorities = new HashSet<>();
         authorities.addAll(ua.getRoles().stream().map(r -> r.getName()).collect(Collectors.toSet()));
         authorities.addAll(ua.getRoles().stream().flatMap(r -> r.getPermissions().stream()).map(p -> p.getName()).collect(Collectors.toSet()));
 
-        return new org.springframework.security.core.userdetails.User(
+        UserDetails user = new org.springframework.security.core.userdetails.User(
                 ua.getUsername(), ua.getPassword(),
                 ua.isEnabled(), true, true, true,
                 authorities.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toSet())
         );
+        cache.put(tenant, user,
+                ua.getRoles().stream().map(r -> r.getId()).collect(Collectors.toSet()),
+                ua.getRoles().stream().flatMap(r -> r.getPermissions().stream()).map(p -> p.getId()).collect(Collectors.toSet()));
+        return user;
+    }
+
+    // called by DaoAuthenticationProvider after a successful login whose stored hash needs upgradeEncoding()
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        String tenant = TenantContext.getTenantId();
+        userRepo.findByUsernameIgnoreCaseAndTenantId(user.getUsername(), tenant).ifPresent(ua -> {
+            ua.setPassword(newPassword);
+            cache.invalidateUser(tenant, ua.getUsername());
+        });
+        return org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword).build();
     }
 }
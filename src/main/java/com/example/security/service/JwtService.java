@@ -1,66 +0,0 @@
-package com.example.security.service;
-
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.stereotype.Service;
-
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.util.*;
-import java.util.stream.Collectors;
-
-@Service
-public class JwtService {
-
-    @Value("${app.jwt.secret}")
-    private String secret;
-
-    @Value("${app.jwt.expiration-ms}")
-    private long expirationMs;
-
-    // TODO: إنشاء مفتاح التوقيع من السرّ
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
-
-    private final Key key;
-    private final long expMs;
-
-    public JwtService(@Value("${jwt.secret}") String secret, @Value("${jwt.exp-ms}") long expMs) {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        this.expMs = expMs;
-    }
-
-    public String generateToken(UserDetails user) {
-        return Jwts.builder()
-                .setSubject(user.getUsername())
-                .claim("authorities", user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expMs))
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
-    }
-
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject();
-    }
-
-    public boolean isTokenValid(String token, UserDetails user) {
-        var body = Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody();
-        return user.getUsername().equals(body.getSubject()) && body.getExpiration().after(new Date());
-    }
-
-    // TODO: قراءة جميع الـ claims من التوكين
-    public Claims parseAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-}
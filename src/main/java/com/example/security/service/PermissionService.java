@@ -2,19 +2,28 @@ package com.example.security.service;
 
 import com.example.security.domain.Permission;
 import com.example.security.dto.CreatePermissionRequest;
+import com.example.security.dto.CursorPage;
 import com.example.security.multitenancy.TenantContext;
 import com.example.security.repo.PermissionRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PermissionService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final PermissionRepository permRepo;
+    private final UserDetailsCache userDetailsCache;
+    private final AuthorityDictionary authorityDictionary;
+    private final AuthorizationEpochs authzEpochs;
 
     @Transactional
     public Permission createPermission(CreatePermissionRequest req) {
@@ -27,6 +36,7 @@ public class PermissionService {
                 .tenantId(tenant)
                 .name(req.getName())
                 .build();
+        authorityDictionary.invalidate(tenant);
         return permRepo.save(p);
     }
 
@@ -34,12 +44,34 @@ public class PermissionService {
         return permRepo.findAllByTenantId(requireTenant());
     }
 
+    public CursorPage<Permission> pagePermissions(Long after, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<Permission> page = permRepo.findByTenantIdAndIdGreaterThanOrderByIdAsc(
+                requireTenant(), after == null ? Long.MIN_VALUE : after, Limit.of(size));
+        Long next = page.size() < size ? null : page.get(page.size() - 1).getId();
+        return new CursorPage<>(page, next);
+    }
+
+    // a transaction keeps the connection open while the stream is consumed
+    @Transactional
+    public void exportPermissions(Consumer<Permission> sink) {
+        String tenant = requireTenant();
+        try (Stream<Object[]> rows = permRepo.streamRows(tenant)) {
+            rows.forEach(row -> sink.accept(Permission.builder()
+                    .id((Long) row[0]).tenantId(tenant).name((String) row[1]).build()));
+        }
+    }
+
     @Transactional
     public void deletePermission(Long id) {
-        long deleted = permRepo.deleteByIdAndTenantId(id, requireTenant());
+        String tenant = requireTenant();
+        long deleted = permRepo.deleteByIdAndTenantId(id, tenant);
         if (deleted == 0) {
             throw new IllegalArgumentException("Permission not found for current tenant");
         }
+        userDetailsCache.invalidatePermission(tenant, id);
+        authorityDictionary.invalidate(tenant);
+        authzEpochs.bumpTenant(tenant);
     }
 
     private String requireTenant() {
@@ -0,0 +1,118 @@
+package com.example.security.service;
+
+import com.example.security.config.SchedulingConfig;
+import com.example.security.domain.JobLock;
+import com.example.security.repo.JobLockRepository;
+import com.example.security.repo.RefreshTokenRepository;
+import com.example.security.security.AccessTokenRevocationStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes expired REFRESH_TOKENS rows in bounded chunks, one short transaction per chunk with a pause
+ * in between, so undo and lock footprint stay small. A lease in JOB_LOCKS keeps it to one node per run;
+ * the loop stops before the lease runs out rather than overlap with the next holder. Expired REVOKED_ACCESS_TOKENS
+ * rows and the expired user rows of AUTHZ_EPOCHS are deleted in the same run, so no node purges them on its own
+ * schedule.
+ */
+@Component
+public class RefreshTokenPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+    private static final String LOCK_NAME = "refresh-token-purge";
+
+    private final RefreshTokenRepository tokens;
+    private final JobLockRepository locks;
+    private final AuthorizationEpochs authzEpochs;
+    private final AccessTokenRevocationStore revocations;
+    private final TransactionTemplate tx;
+    private final Counter purged;
+    private final Timer duration;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Value("${app.refresh-purge.enabled:true}")
+    private boolean enabled;
+    @Value("${app.refresh-purge.chunk-size:5000}")
+    private int chunkSize;
+    @Value("${app.refresh-purge.pause-ms:200}")
+    private long pauseMs;
+    @Value("${app.refresh-purge.lease-seconds:600}")
+    private long leaseSeconds;
+
+    public RefreshTokenPurgeJob(RefreshTokenRepository tokens, JobLockRepository locks, AuthorizationEpochs authzEpochs,
+                                AccessTokenRevocationStore revocations, PlatformTransactionManager txManager,
+                                MeterRegistry registry) {
+        this.tokens = tokens;
+        this.locks = locks;
+        this.authzEpochs = authzEpochs;
+        this.revocations = revocations;
+        this.tx = new TransactionTemplate(txManager);
+        this.purged = Counter.builder("auth.refresh_tokens.purged")
+                .description("Expired refresh tokens deleted by the purge job").register(registry);
+        this.duration = Timer.builder("auth.refresh_tokens.purge")
+                .description("Wall time of one purge run on the node holding the lease").register(registry);
+    }
+
+    // own thread: a run sleeps between chunks for up to a lease, which would stall the 5s pollers
+    @Scheduled(cron = "${app.refresh-purge.cron:0 */15 * * * *}", scheduler = SchedulingConfig.REFRESH_PURGE_SCHEDULER)
+    public void purge() {
+        if (!enabled) return;
+        Instant start = Instant.now();
+        Instant leaseEnd = start.plusSeconds(leaseSeconds);
+        if (!acquire(start, leaseEnd)) return;
+
+        long total = 0;
+        try {
+            // stop with a margin of one pause + a chunk's worth of time before the lease expires
+            Instant stopAt = leaseEnd.minus(Duration.ofMillis(pauseMs)).minusSeconds(Math.min(30, leaseSeconds / 10));
+            while (Instant.now().isBefore(stopAt)) {
+                Integer n = tx.execute(s -> tokens.deleteExpiredChunk(Instant.now(), chunkSize));
+                int deleted = n == null ? 0 : n;
+                total += deleted;
+                purged.increment(deleted);
+                if (deleted < chunkSize) break;
+                Thread.sleep(pauseMs);
+            }
+            // both tables hold rows for one access-token lifetime only: small enough for one statement each
+            int revoked = revocations.purgeExpired();
+            if (revoked > 0) log.info("Purged {} expired access-token revocations", revoked);
+            int epochs = authzEpochs.purgeUserRows();
+            if (epochs > 0) log.info("Purged {} expired authorization epochs", epochs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            tx.executeWithoutResult(s -> locks.release(LOCK_NAME, owner, Instant.now()));
+            Duration took = Duration.between(start, Instant.now());
+            duration.record(took);
+            if (total > 0) log.info("Purged {} expired refresh tokens in {} ms", total, took.toMillis());
+        }
+    }
+
+    private boolean acquire(Instant now, Instant until) {
+        Integer updated = tx.execute(s -> locks.tryAcquire(LOCK_NAME, owner, now, until));
+        if (updated != null && updated == 1) return true;
+        try {
+            // first run anywhere: create the lease row; a concurrent creator makes this fail, which is fine
+            return Boolean.TRUE.equals(tx.execute(s -> {
+                if (locks.existsById(LOCK_NAME)) return false;
+                locks.saveAndFlush(JobLock.builder().name(LOCK_NAME).lockedUntil(until).lockedBy(owner).build());
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+}
@@ -3,24 +3,42 @@ package com.example.security.service;
 import com.example.security.domain.Permission;
 import com.example.security.domain.Role;
 import com.example.security.dto.AssignPermissionsRequest;
+import com.example.security.dto.BulkAssignPermissionsRequest;
 import com.example.security.dto.CreateRoleRequest;
+import com.example.security.dto.CursorPage;
 import com.example.security.multitenancy.TenantContext;
 import com.example.security.repo.PermissionRepository;
 import com.example.security.repo.RoleRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class RoleService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int IN_LIST_CHUNK = 1000; // Oracle ORA-01795
+
     private final RoleRepository roleRepo;
     private final PermissionRepository permRepo;
+    private final UserDetailsCache userDetailsCache;
+    private final AuthorityDictionary authorityDictionary;
+    private final AuthorizationEpochs authzEpochs;
 
     // إنشاء دور جديد (محصور بالـ tenant)
     @Transactional
@@ -37,6 +55,7 @@ public class RoleService {
                 .permissions(new HashSet<>())
                 .build();
 
+        authorityDictionary.invalidate(tenant);
         return roleRepo.save(r);
     }
 
@@ -45,31 +64,135 @@ public class RoleService {
     public Role assignPermissions(Long roleId, AssignPermissionsRequest req) {
         String tenant = requireTenant();
 
-        Role role = roleRepo.findByIdAndTenantId(roleId, tenant)
+        Role role = roleRepo.findCachedByIdAndTenantId(roleId, tenant)
                 .orElseThrow(() -> new IllegalArgumentException("Role not found in current tenant: " + roleId));
 
-        Set<Permission> perms = new HashSet<>();
-        for (String name : req.getPermissions()) {
-            Permission p = permRepo.findByNameAndTenantId(name, tenant)
-                    .orElseThrow(() -> new IllegalArgumentException("Permission not found in current tenant: " + name));
-            perms.add(p);
-        }
-        role.setPermissions(perms);
+        Map<String, Permission> byName = resolvePermissions(tenant, req.getPermissions());
+        replacePermissions(role, req.getPermissions(), byName);
+        userDetailsCache.invalidateRole(tenant, roleId);
+        // توكنات الـ tenant الصادرة قبل التغيير تصبح قديمة
+        authzEpochs.bumpTenant(tenant);
         return roleRepo.save(role);
     }
 
+    // ربط صلاحيات بعدة أدوار في معاملة واحدة (استبدال لكل دور) — استعلام واحد للأدوار وآخر للصلاحيات
+    @Transactional
+    public List<Role> bulkAssignPermissions(BulkAssignPermissionsRequest req) {
+        String tenant = requireTenant();
+
+        Map<Long, Set<String>> wanted = new LinkedHashMap<>();
+        for (var a : req.getAssignments()) {
+            if (wanted.put(a.getRoleId(), a.getPermissions()) != null) {
+                throw new IllegalArgumentException("Role listed more than once: " + a.getRoleId());
+            }
+        }
+
+        Map<Long, Role> roles = new HashMap<>();
+        for (List<Long> ids : chunks(wanted.keySet())) {
+            roleRepo.findWithPermissionsByTenantIdAndIdIn(tenant, ids).forEach(r -> roles.put(r.getId(), r));
+        }
+        List<Long> missingRoles = wanted.keySet().stream().filter(id -> !roles.containsKey(id)).toList();
+        if (!missingRoles.isEmpty()) {
+            throw new IllegalArgumentException("Role(s) not found in current tenant: " + missingRoles);
+        }
+
+        Map<String, Permission> byName = resolvePermissions(tenant,
+                wanted.values().stream().flatMap(Set::stream).collect(Collectors.toSet()));
+
+        List<Role> result = new ArrayList<>(wanted.size());
+        wanted.forEach((roleId, names) -> {
+            Role role = roles.get(roleId);
+            replacePermissions(role, names, byName);
+            userDetailsCache.invalidateRole(tenant, roleId);
+            result.add(role);
+        });
+        authzEpochs.bumpTenant(tenant);
+        // managed entities: the ROLE_PERMISSIONS row changes are flushed (batched) on commit
+        return result;
+    }
+
     // عرض جميع الأدوار للـ tenant الحالي
     public List<Role> listRoles() {
         return roleRepo.findAllByTenantId(requireTenant());
     }
 
+    // صفحة أدوار بمؤشر (keyset على ID)
+    public CursorPage<Role> pageRoles(Long after, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<Role> page = roleRepo.findByTenantIdAndIdGreaterThanOrderByIdAsc(
+                requireTenant(), after == null ? Long.MIN_VALUE : after, Limit.of(size));
+        Long next = page.size() < size ? null : page.get(page.size() - 1).getId();
+        return new CursorPage<>(page, next);
+    }
+
+    // تصدير الأدوار كتدفق: كل دور يُبنى من صفوف متتالية ولا يُحتفظ بالـ tenant كاملًا في الذاكرة
+    @Transactional
+    public void exportRoles(Consumer<Role> sink) {
+        String tenant = requireTenant();
+        try (Stream<Object[]> rows = roleRepo.streamRolePermissionRows(tenant)) {
+            Iterator<Object[]> it = rows.iterator();
+            Role current = null;
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                Long id = (Long) row[0];
+                if (current == null || !id.equals(current.getId())) {
+                    if (current != null) sink.accept(current);
+                    current = Role.builder().id(id).tenantId(tenant).name((String) row[1])
+                            .permissions(new HashSet<>()).build();
+                }
+                if (row[2] != null) {
+                    current.getPermissions().add(Permission.builder()
+                            .id((Long) row[2]).tenantId(tenant).name((String) row[3]).build());
+                }
+            }
+            if (current != null) sink.accept(current);
+        }
+    }
+
     // حذف دور داخل الـ tenant الحالي
     @Transactional
     public void deleteRole(Long id) {
-        long deleted = roleRepo.deleteByIdAndTenantId(id, requireTenant());
+        String tenant = requireTenant();
+        long deleted = roleRepo.deleteByIdAndTenantId(id, tenant);
         if (deleted == 0) {
             throw new IllegalArgumentException("Role not found for current tenant");
         }
+        userDetailsCache.invalidateRole(tenant, id);
+        authorityDictionary.invalidate(tenant);
+        authzEpochs.bumpTenant(tenant);
+    }
+
+    // كل الأسماء في استعلامات IN مجزأة؛ الأسماء غير الموجودة تُرفض دفعة واحدة
+    private Map<String, Permission> resolvePermissions(String tenant, Collection<String> names) {
+        Map<String, Permission> found = new HashMap<>();
+        for (List<String> chunk : chunks(names)) {
+            permRepo.findByTenantIdAndNameIn(tenant, chunk).forEach(p -> found.put(p.getName(), p));
+        }
+        List<String> missing = names.stream().filter(n -> !found.containsKey(n)).sorted().toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Permission(s) not found in current tenant: " + missing);
+        }
+        return found;
+    }
+
+    // تعديل المجموعة المُدارة نفسها بدل استبدالها، فيكتب Hibernate الصفوف المتغيرة فقط بدل حذف الكل وإعادة الإدراج
+    private static void replacePermissions(Role role, Set<String> names, Map<String, Permission> byName) {
+        Set<Permission> target = names.stream().map(byName::get).collect(Collectors.toSet());
+        if (role.getPermissions() == null) {
+            role.setPermissions(new HashSet<>(target));
+            return;
+        }
+        role.getPermissions().retainAll(target);
+        role.getPermissions().addAll(target);
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> items) {
+        List<T> all = List.copyOf(items);
+        List<List<T>> out = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += IN_LIST_CHUNK) {
+            out.add(all.subList(i, Math.min(i + IN_LIST_CHUNK, all.size())));
+        }
+        return out;
     }
 
     private String requireTenant() {
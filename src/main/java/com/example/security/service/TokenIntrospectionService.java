@@ -0,0 +1,163 @@
+package com.example.security.service;
+
+import com.example.security.dto.IntrospectResponse.Result;
+import com.example.security.multitenancy.TenantContext;
+import com.example.security.security.AccessTokenRevocationStore;
+import com.example.security.security.AuthMetrics;
+import com.example.security.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies a batch of access tokens for gateways: signature and expiry through JwtService.parse, then the
+ * in-memory revocation view. Refresh tokens are never reported active, and neither are tokens of a tenant
+ * other than the caller's: a gateway introspects with a token of the tenant it fronts. A token stamped before
+ * the last RBAC change is handled as the filter handles it ({@code security.authz-epoch.on-stale}): inactive
+ * under {@code reject}, otherwise active with the authorities the database holds now. The batch is cut into chunks verified in parallel on a CPU-sized pool; when the
+ * pool is busy the request thread verifies its chunks itself, so a flood of batches cannot queue without bound.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    // below this a chunk costs more to hand over than to verify (HS256 is a few microseconds per token)
+    private static final int MIN_CHUNK = 16;
+
+    private final JwtService jwt;
+    private final AccessTokenRevocationStore revocations;
+    private final AuthorityDictionary authorityDictionary;
+    private final AuthorizationEpochs authzEpochs;
+    private final CustomUserDetailsService userDetailsService;
+    private final AuthMetrics metrics;
+    private final boolean rejectStale;
+    private final ThreadPoolExecutor pool;
+    private final int maxBatch;
+
+    public TokenIntrospectionService(JwtService jwt, AccessTokenRevocationStore revocations,
+                                     AuthorityDictionary authorityDictionary, AuthorizationEpochs authzEpochs,
+                                     CustomUserDetailsService userDetailsService, AuthMetrics metrics,
+                                     @Value("${security.authz-epoch.on-stale:reload}") String onStale,
+                                     @Value("${security.introspection.threads:0}") int threads,
+                                     @Value("${security.introspection.max-batch:500}") int maxBatch) {
+        this.jwt = jwt;
+        this.revocations = revocations;
+        this.authorityDictionary = authorityDictionary;
+        this.authzEpochs = authzEpochs;
+        this.userDetailsService = userDetailsService;
+        this.metrics = metrics;
+        this.rejectStale = "reject".equalsIgnoreCase(onStale);
+        this.maxBatch = maxBatch;
+        int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(n * 4),
+                new CustomizableThreadFactory("introspect-"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    public List<Result> introspect(List<String> tokens, String callerTenant) {
+        if (tokens.size() > maxBatch) {
+            throw new IllegalArgumentException("At most " + maxBatch + " tokens per request");
+        }
+        Timer.Sample total = metrics.start();
+        metrics.record("auth.introspect.batch", null, tokens.size());
+        Result[] out = new Result[tokens.size()];
+        int chunks = Math.min(pool.getMaximumPoolSize() + 1, Math.max(1, tokens.size() / MIN_CHUNK));
+        int size = (tokens.size() + chunks - 1) / chunks;
+        List<Future<?>> pending = new ArrayList<>(chunks - 1);
+        // the request thread takes the first chunk itself
+        for (int from = size; from < tokens.size(); from += size) {
+            int f = from, to = Math.min(from + size, tokens.size());
+            pending.add(pool.submit(() -> verify(tokens, callerTenant, out, f, to)));
+        }
+        verify(tokens, callerTenant, out, 0, Math.min(size, tokens.size()));
+        for (Future<?> f : pending) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                pending.forEach(p -> p.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while introspecting tokens", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        metrics.stop(total, "auth.op", null, "op", "introspect", "outcome", "success");
+        return Arrays.asList(out);
+    }
+
+    private void verify(List<String> tokens, String callerTenant, Result[] out, int from, int to) {
+        for (int i = from; i < to; i++) out[i] = verify(tokens.get(i), callerTenant);
+    }
+
+    private Result verify(String token, String callerTenant) {
+        Claims claims;
+        try {
+            claims = jwt.parse(token).getBody();
+        } catch (RuntimeException e) {
+            String reason = AuthMetrics.reason(e);
+            metrics.failure("introspect", null, reason);
+            return Result.inactive(reason);
+        }
+        String tenant = jwt.extractTenant(claims);
+        metrics.verifiedTenant(tenant);
+        if (!jwt.isAccessToken(claims)) {
+            metrics.failure("introspect", tenant, "wrong_type");
+            return Result.inactive("wrong_type");
+        }
+        if (callerTenant == null || !callerTenant.equals(tenant)) {
+            metrics.failure("introspect", tenant, "tenant_mismatch");
+            return Result.inactive("tenant_mismatch");
+        }
+        if (revocations.isRevoked(claims.getId())) {
+            metrics.failure("introspect", tenant, "revoked");
+            return Result.inactive("revoked");
+        }
+        // the authorities in the token predate the last RBAC change of its tenant or user
+        boolean current = authzEpochs.isCurrent(tenant, claims.getSubject(), claims);
+        if (!current && rejectStale) {
+            metrics.failure("introspect", tenant, "stale");
+            return Result.inactive("stale");
+        }
+        Map<String, Object> view = new LinkedHashMap<>(claims);
+        if (!current) {
+            // the filter accepts this token with the user reloaded; report the authorities it would grant
+            List<String> names;
+            try (TenantContext.Scope ignored = TenantContext.enter(tenant)) {
+                names = userDetailsService.loadUserByUsername(claims.getSubject()).getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority).toList();
+            } catch (UsernameNotFoundException e) {
+                metrics.failure("introspect", tenant, AuthMetrics.reason(e));
+                return Result.inactive(AuthMetrics.reason(e));
+            }
+            view.remove(AuthorityDictionary.CLAIM_BITS);
+            view.remove(AuthorityDictionary.CLAIM_VERSION);
+            view.put("authorities", names);
+        } else if (claims.containsKey(AuthorityDictionary.CLAIM_BITS)) {
+            // compact tokens: gateways get the names, not our dictionary bits
+            List<String> names = authorityDictionary.decode(tenant, claims.get(AuthorityDictionary.CLAIM_VERSION, String.class),
+                    claims.get(AuthorityDictionary.CLAIM_BITS, String.class));
+            if (names != null) view.put("authorities", names);
+        }
+        return Result.active(view);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Resolved {@link UserDetails} per tenant, bounded by size and TTL (one Caffeine cache per tenant, so eviction
+ * is amortized and never scans a partition on insert). A partition exists only for tenants that have had a user cached.
+ * Every entry remembers the role and permission ids it was built from so RBAC writes can drop
+ * only the users they actually affect. Invalidation runs after commit when a transaction is active,
+ * otherwise a concurrent load could re-cache the pre-commit state.
+ */
+@Component
+public class UserDetailsCache {
+
+    public record TenantStats(long hits, long misses, int size) {}
+
+    private record Entry(UserDetails user, Set<Long> roleIds, Set<Long> permissionIds) {}
+
+    private static final class Partition {
+        final Cache<String, Entry> entries;
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+
+        Partition(int maxSize, long ttlSeconds) {
+            entries = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .build();
+        }
+    }
+
+    private final ConcurrentHashMap<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    @Value("${security.user-cache.enabled:true}")
+    private boolean enabled;
+    @Value("${security.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    @Value("${security.user-cache.max-per-tenant:10000}")
+    private int maxPerTenant;
+
+    public UserDetails get(String tenant, String username) {
+        if (!enabled) return null;
+        // tenants come from the login request: only put(), after a user was found, may create a partition
+        Partition p = partitions.get(tenant);
+        if (p == null) return null;
+        Entry e = p.entries.getIfPresent(key(username));
+        if (e == null) {
+            p.misses.increment();
+            return null;
+        }
+        p.hits.increment();
+        return copy(e.user());
+    }
+
+    public void put(String tenant, UserDetails user, Set<Long> roleIds, Set<Long> permissionIds) {
+        if (!enabled) return;
+        partition(tenant).entries.put(key(user.getUsername()),
+                new Entry(copy(user), Set.copyOf(roleIds), Set.copyOf(permissionIds)));
+    }
+
+    public void invalidateUser(String tenant, String username) {
+        afterCommit(() -> {
+            Partition p = partitions.get(tenant);
+            if (p != null) p.entries.invalidate(key(username));
+        });
+    }
+
+    public void invalidateTenant(String tenant) {
+        afterCommit(() -> {
+            Partition p = partitions.get(tenant);
+            if (p != null) p.entries.invalidateAll();
+        });
+    }
+
+    public void invalidateRole(String tenant, Long roleId) {
+        invalidateWhere(tenant, e -> e.roleIds().contains(roleId));
+    }
+
+    public void invalidatePermission(String tenant, Long permissionId) {
+        invalidateWhere(tenant, e -> e.permissionIds().contains(permissionId));
+    }
+
+    public Map<String, TenantStats> stats() {
+        Map<String, TenantStats> out = new TreeMap<>();
+        partitions.forEach((tenant, p) ->
+                out.put(tenant, new TenantStats(p.hits.sum(), p.misses.sum(), (int) p.entries.estimatedSize())));
+        return out;
+    }
+
+    private void invalidateWhere(String tenant, Predicate<Entry> affected) {
+        afterCommit(() -> {
+            Partition p = partitions.get(tenant);
+            if (p != null) p.entries.asMap().values().removeIf(affected);
+        });
+    }
+
+    private Partition partition(String tenant) {
+        return partitions.computeIfAbsent(tenant, t -> new Partition(maxPerTenant, ttlSeconds));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() { action.run(); }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    // ProviderManager erases credentials on the returned principal; never hand out the cached instance
+    private static UserDetails copy(UserDetails u) {
+        return User.withUsername(u.getUsername())
+                .password(u.getPassword())
+                .disabled(!u.isEnabled())
+                .accountExpired(!u.isAccountNonExpired())
+                .accountLocked(!u.isAccountNonLocked())
+                .credentialsExpired(!u.isCredentialsNonExpired())
+                .authorities(u.getAuthorities())
+                .build();
+    }
+}
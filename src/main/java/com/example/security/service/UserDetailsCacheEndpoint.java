@@ -0,0 +1,22 @@
+package com.example.security.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** Per-tenant hit/miss/size of {@link UserDetailsCache}: {@code /actuator/userdetailscache}. */
+@Component
+@Endpoint(id = "userdetailscache")
+@RequiredArgsConstructor
+public class UserDetailsCacheEndpoint {
+
+    private final UserDetailsCache cache;
+
+    @ReadOperation
+    public Map<String, UserDetailsCache.TenantStats> stats() {
+        return cache.stats();
+    }
+}
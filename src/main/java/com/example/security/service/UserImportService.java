@@ -0,0 +1,162 @@
+package com.example.security.service;
+
+import com.example.security.domain.Role;
+import com.example.security.domain.UserAccount;
+import com.example.security.dto.CreateUserRequest;
+import com.example.security.dto.ImportUserRow;
+import com.example.security.dto.UserImportResult;
+import com.example.security.dto.UserImportResult.Status;
+import com.example.security.multitenancy.TenantContext;
+import com.example.security.repo.RoleRepository;
+import com.example.security.repo.UserAccountRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user creation from a streamed body. Rows are processed in chunks: validate, drop duplicates
+ * (within the import and, with one query per chunk, against the tenant), hash the survivors in parallel
+ * on the import pool, then insert the chunk in its own transaction. Results go to the sink in line order.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+    private static final int CHUNK_SIZE = 500; // also keeps the duplicate IN-list under Oracle's 1000 limit
+
+    private final UserAccountRepository repo;
+    private final RoleRepository roleRepo;
+    private final PasswordEncoder encoder;
+    private final Validator validator;
+    private final ExecutorService hashingPool;
+    private final TransactionTemplate tx;
+
+    public UserImportService(UserAccountRepository repo,
+                             RoleRepository roleRepo,
+                             PasswordEncoder encoder,
+                             Validator validator,
+                             @Qualifier("importHashingExecutor") ExecutorService hashingPool,
+                             PlatformTransactionManager txManager) {
+        this.repo = repo;
+        this.roleRepo = roleRepo;
+        this.encoder = encoder;
+        this.validator = validator;
+        this.hashingPool = hashingPool;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    public void importUsers(Iterator<ImportUserRow> rows, Consumer<UserImportResult> sink) {
+        String tenant = requireTenant();
+        Set<String> seen = new HashSet<>();
+        List<ImportUserRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                processChunk(tenant, chunk, seen, sink);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) processChunk(tenant, chunk, seen, sink);
+    }
+
+    private void processChunk(String tenant, List<ImportUserRow> chunk, Set<String> seen,
+                              Consumer<UserImportResult> sink) {
+        UserImportResult[] results = new UserImportResult[chunk.size()];
+        List<Integer> candidates = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            ImportUserRow r = chunk.get(i);
+            String problem = validate(r);
+            if (problem != null) {
+                results[i] = new UserImportResult(r.line(), r.username(), Status.INVALID, null, problem);
+            } else if (!seen.add(r.username().toLowerCase(Locale.ROOT))) {
+                results[i] = new UserImportResult(r.line(), r.username(), Status.DUPLICATE, null, "Repeated in import");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<String> existing = new HashSet<>(repo.findExistingUsernames(tenant,
+                    candidates.stream().map(i -> chunk.get(i).username().toLowerCase(Locale.ROOT)).toList()));
+            candidates.removeIf(i -> {
+                ImportUserRow r = chunk.get(i);
+                if (!existing.contains(r.username().toLowerCase(Locale.ROOT))) return false;
+                results[i] = new UserImportResult(r.line(), r.username(), Status.DUPLICATE, null,
+                        "Username already exists in tenant");
+                return true;
+            });
+        }
+
+        if (!candidates.isEmpty()) {
+            List<CompletableFuture<String>> hashes = candidates.stream()
+                    .map(i -> CompletableFuture.supplyAsync(() -> encoder.encode(chunk.get(i).password()), hashingPool))
+                    .toList();
+            List<UserAccount> users = new ArrayList<>(candidates.size());
+            for (int k = 0; k < candidates.size(); k++) {
+                users.add(UserAccount.builder()
+                        .tenantId(tenant)
+                        .username(chunk.get(candidates.get(k)).username())
+                        .password(hashes.get(k).join())
+                        .enabled(true)
+                        .build());
+            }
+            try {
+                List<UserAccount> saved = tx.execute(status -> {
+                    Set<Role> defaultRoles = roleRepo.findByNameAndTenantId("ROLE_USER", tenant)
+                            .map(Set::of).orElse(Set.of());
+                    users.forEach(u -> u.setRoles(new HashSet<>(defaultRoles)));
+                    return repo.saveAll(users);
+                });
+                for (int k = 0; k < candidates.size(); k++) {
+                    ImportUserRow r = chunk.get(candidates.get(k));
+                    results[candidates.get(k)] = new UserImportResult(r.line(), r.username(), Status.CREATED,
+                            saved.get(k).getId(), null);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // a concurrent create took one of the names between the duplicate check and the insert
+                log.warn("Import chunk rolled back in tenant {}: {}", tenant, e.getMostSpecificCause().toString());
+                for (int i : candidates) {
+                    ImportUserRow r = chunk.get(i);
+                    results[i] = new UserImportResult(r.line(), r.username(), Status.FAILED, null,
+                            "Chunk rolled back on a conflicting write; retry these rows");
+                }
+            }
+        }
+
+        for (UserImportResult res : results) sink.accept(res);
+    }
+
+    private String validate(ImportUserRow r) {
+        if (r.username() == null || r.password() == null) return "Malformed line";
+        Set<ConstraintViolation<CreateUserRequest>> v = validator.validate(new CreateUserRequest(r.username(), r.password()));
+        if (v.isEmpty()) return null;
+        return v.stream().map(cv -> cv.getPropertyPath() + " " + cv.getMessage()).sorted().collect(Collectors.joining("; "));
+    }
+
+    private String requireTenant() {
+        String t = TenantContext.getTenantId();
+        if (t == null || t.isBlank()) {
+            throw new IllegalStateException("Missing tenant in context");
+        }
+        return t;
+    }
+}
@@ -3,24 +3,40 @@ package com.example.security.service;
 import com.example.security.domain.Role;
 import com.example.security.domain.UserAccount;
 import com.example.security.dto.CreateUserRequest;
+import com.example.security.dto.CursorPage;
+import com.example.security.dto.UserDto;
+import com.example.security.mapper.UserMapper;
 import com.example.security.multitenancy.TenantContext;
 import com.example.security.repo.RoleRepository;
 import com.example.security.repo.UserAccountRepository;
+import com.example.security.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserAccountRepository repo;
     private final RoleRepository roleRepo;
     private final PasswordEncoder encoder;
+    private final UserDetailsCache userDetailsCache;
+    private final PasswordHashingExecutor hashing;
 
     @Transactional
     public UserAccount createUser(CreateUserRequest req){
@@ -33,7 +49,7 @@ public class UserService {
         UserAccount u = UserAccount.builder()
                 .tenantId(tenant)
                 .username(req.username())
-                .password(encoder.encode(req.password()))
+                .password(hashing.call(() -> encoder.encode(req.password())))
                 .enabled(true)
                 .build();
 
@@ -41,16 +57,68 @@ public class UserService {
         roleRepo.findByNameAndTenantId("ROLE_USER", tenant)
                 .ifPresent(r -> u.setRoles(Set.of(r)));
 
+        userDetailsCache.invalidateUser(tenant, req.username());
         return repo.save(u);
     }
 
     @Transactional(readOnly = true)
     public java.util.List<com.example.security.dto.UserDto> listUsers(){
-        var users = repo.findAllByTenantId(requireTenant());
+        String tenant = requireTenant();
+        var users = repo.findWithRolesByTenantId(tenant);
+        // one query initialises role.permissions on the same managed Role instances the users reference
+        roleRepo.findWithPermissionsByTenantId(tenant);
         // map to DTOs while session is open to avoid LazyInitializationException
         return users.stream().map(com.example.security.mapper.UserMapper::toDto).toList();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> pageUsers(Long after, int limit) {
+        String tenant = requireTenant();
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        var page = repo.findByTenantIdAndIdGreaterThanOrderByIdAsc(
+                tenant, after == null ? Long.MIN_VALUE : after, Limit.of(size));
+        if (page.isEmpty()) return new CursorPage<>(List.of(), null);
+        // same two-step fetch as listUsers, restricted to this page's users
+        repo.findWithRolesByIdIn(page.stream().map(UserAccount::getId).toList());
+        roleRepo.findWithPermissionsByTenantId(tenant);
+        Long next = page.size() < size ? null : page.get(page.size() - 1).getId();
+        return new CursorPage<>(page.stream().map(UserMapper::toDto).toList(), next);
+    }
+
+    // streams the tenant's users to sink one at a time; only the tenant's roles are held in memory
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserDto> sink) {
+        String tenant = requireTenant();
+        Map<Long, Role> roles = roleRepo.findWithPermissionsByTenantId(tenant).stream()
+                .collect(Collectors.toMap(Role::getId, Function.identity()));
+        try (Stream<Object[]> rows = repo.streamUserRoleRows(tenant)) {
+            Iterator<Object[]> it = rows.iterator();
+            Long currentId = null;
+            String username = null;
+            boolean enabled = false;
+            Set<String> roleNames = new HashSet<>();
+            Set<String> perms = new HashSet<>();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                Long id = (Long) row[0];
+                if (!id.equals(currentId)) {
+                    if (currentId != null) sink.accept(new UserDto(currentId, username, enabled, roleNames, perms));
+                    currentId = id;
+                    username = (String) row[1];
+                    enabled = (Boolean) row[2];
+                    roleNames = new HashSet<>();
+                    perms = new HashSet<>();
+                }
+                Role r = row[3] == null ? null : roles.get((Long) row[3]);
+                if (r != null) {
+                    roleNames.add(r.getName());
+                    for (var p : r.getPermissions()) perms.add(p.getName());
+                }
+            }
+            if (currentId != null) sink.accept(new UserDto(currentId, username, enabled, roleNames, perms));
+        }
+    }
+
     private String requireTenant() {
         String t = TenantContext.getTenantId();
         if (t == null || t.isBlank()) {
@@ -0,0 +1,9 @@
+-- Backing table for AccessTokenRevocationStore. Rows live only until the revoked access token
+-- would have expired (minutes), so the table stays small enough to reload in full on every poll.
+CREATE TABLE REVOKED_ACCESS_TOKENS (
+  JTI        VARCHAR2(64) NOT NULL,
+  EXPIRES_AT TIMESTAMP(6) NOT NULL,
+  CONSTRAINT PK_REVOKED_ACCESS_TOKENS PRIMARY KEY (JTI)
+);
+
+CREATE INDEX IDX_REVOKED_AT_EXPIRES ON REVOKED_ACCESS_TOKENS (EXPIRES_AT);
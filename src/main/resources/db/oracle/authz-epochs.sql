@@ -0,0 +1,11 @@
+-- Backing table for AuthorizationEpochs. One row per tenant (USERNAME NULL), bumped by RBAC writes, and one
+-- per user whose grants changed on their own; user rows are purged one access-token lifetime after their
+-- last bump, so the table stays small enough to reload in full on every poll.
+CREATE TABLE AUTHZ_EPOCHS (
+  SCOPE_KEY  VARCHAR2(160) NOT NULL,
+  TENANT_ID  VARCHAR2(64)  NOT NULL,
+  USERNAME   VARCHAR2(80),
+  EPOCH      NUMBER(19)    NOT NULL,
+  UPDATED_AT TIMESTAMP(6)  NOT NULL,
+  CONSTRAINT PK_AUTHZ_EPOCHS PRIMARY KEY (SCOPE_KEY)
+);
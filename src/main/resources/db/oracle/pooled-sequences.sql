@@ -0,0 +1,26 @@
+-- Moves USERS, ROLES, PERMISSIONS and HR.REFRESH_TOKENS from IDENTITY columns to the pooled
+-- sequences declared with @SequenceGenerator on the entities. Run once, with the application stopped.
+--
+-- INCREMENT BY must equal allocationSize (50). Hibernate's pooled optimizer treats each NEXTVAL as the
+-- upper end of a block of 50 ids, so the sequence starts at MAX(ID) + 50: the first block then begins
+-- right after the highest existing id.
+DECLARE
+  PROCEDURE to_sequence(p_table VARCHAR2, p_seq VARCHAR2) IS
+    v_start NUMBER;
+  BEGIN
+    EXECUTE IMMEDIATE 'SELECT NVL(MAX(ID), 0) + 50 FROM ' || p_table INTO v_start;
+    BEGIN
+      EXECUTE IMMEDIATE 'ALTER TABLE ' || p_table || ' MODIFY (ID DROP IDENTITY)';
+    EXCEPTION WHEN OTHERS THEN
+      IF SQLCODE != -30673 THEN RAISE; END IF; -- ORA-30673: column is not an identity column
+    END;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_seq || ' START WITH ' || v_start
+                      || ' INCREMENT BY 50 CACHE 20 NOCYCLE';
+  END;
+BEGIN
+  to_sequence('USERS',            'USERS_SEQ');
+  to_sequence('ROLES',            'ROLES_SEQ');
+  to_sequence('PERMISSIONS',      'PERMISSIONS_SEQ');
+  to_sequence('HR.REFRESH_TOKENS', 'HR.REFRESH_TOKENS_SEQ');
+END;
+/
@@ -0,0 +1,13 @@
+-- Supports RefreshTokenPurgeJob: the range index lets each chunked DELETE find expired rows
+-- without a full scan, and JOB_LOCKS holds the per-job lease that keeps the purge to one node.
+CREATE INDEX HR.IDX_REFRESH_EXPIRES ON HR.REFRESH_TOKENS (EXPIRES_AT);
+
+CREATE TABLE JOB_LOCKS (
+  NAME         VARCHAR2(64)  NOT NULL,
+  LOCKED_UNTIL TIMESTAMP(6)  NOT NULL,
+  LOCKED_BY    VARCHAR2(128),
+  CONSTRAINT PK_JOB_LOCKS PRIMARY KEY (NAME)
+);
+
+INSERT INTO JOB_LOCKS (NAME, LOCKED_UNTIL) VALUES ('refresh-token-purge', TIMESTAMP '1970-01-01 00:00:00');
+COMMIT;
@@ -0,0 +1,82 @@
+package com.example.security.reactive;
+
+import com.example.security.security.HashingPoolSaturatedException;
+import com.example.security.security.LoginThrottledException;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** ApiErrors for the reactive endpoints: the same status codes and the same error body fields. */
+@RestControllerAdvice
+public class ReactiveApiErrors {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveApiErrors.class);
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleValidation(WebExchangeBindException ex) {
+        List<Map<String, String>> details = ex.getFieldErrors().stream()
+                .map(fe -> Map.of("field", fe.getField(), "issue", String.valueOf(fe.getDefaultMessage())))
+                .toList();
+        return buildResponse(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "Invalid field(s)", Map.of("details", details));
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, IllegalStateException.class, ServerWebInputException.class})
+    public ResponseEntity<Map<String, Object>> handleBadRequest(Exception ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "BAD_REQUEST", ex.getMessage(), null);
+    }
+
+    @ExceptionHandler({AuthenticationException.class, JwtException.class})
+    public ResponseEntity<Map<String, Object>> handleAuth(Exception ex) {
+        return buildResponse(HttpStatus.UNAUTHORIZED, "UNAUTHORIZED", ex.getMessage(), null);
+    }
+
+    @ExceptionHandler(HashingPoolSaturatedException.class)
+    public ResponseEntity<Map<String, Object>> handleHashingSaturated(HashingPoolSaturatedException ex) {
+        ResponseEntity<Map<String, Object>> r = buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "OVERLOADED", ex.getMessage(), null);
+        return ResponseEntity.status(r.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(r.getBody());
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleLoginThrottled(LoginThrottledException ex) {
+        ResponseEntity<Map<String, Object>> r = buildResponse(HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS", ex.getMessage(), null);
+        return ResponseEntity.status(r.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds())).body(r.getBody());
+    }
+
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<Map<String, Object>> handleDataAccess(DataAccessException ex) {
+        log.error("Database access error", ex);
+        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "DB_ERROR", "Database error", null);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<Map<String, Object>> handleOther(Exception ex) {
+        log.error("Unhandled exception caught by ReactiveApiErrors", ex);
+        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Unexpected error", null);
+    }
+
+    // the fields of dto.ErrorResponse
+    private ResponseEntity<Map<String, Object>> buildResponse(HttpStatus status, String code, String message, Map<String, Object> extra) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", status.value());
+        body.put("code", code);
+        body.put("message", message == null ? "" : message);
+        body.put("extra", extra);
+        return ResponseEntity.status(status).body(body);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.security.reactive;
+
+import com.example.security.config.CryptoConfig;
+import com.example.security.config.SchedulingConfig;
+import com.example.security.security.AuthMetrics;
+import com.example.security.security.JwtService;
+import com.example.security.security.ClientIpResolver;
+import com.example.security.security.LoginThrottle;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Auth-only deployment on WebFlux + R2DBC: /api/auth/login, /refresh, /logout and bearer validation on a
+ * handful of event-loop threads. Scans only this package; the token, metrics, throttle and BCrypt beans are
+ * the servlet application's own classes, so both deployments issue and accept the same tokens.
+ */
+@SpringBootApplication(exclude = ReactiveUserDetailsServiceAutoConfiguration.class)
+@Import({JwtService.class, AuthMetrics.class, LoginThrottle.class, ClientIpResolver.class, CryptoConfig.class, SchedulingConfig.class})
+public class ReactiveAuthApplication {
+
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.forLanguageTag("en-US-u-nu-latn"));
+        SpringApplication app = new SpringApplication(ReactiveAuthApplication.class);
+        // servlet classes are on the classpath too (shared jar): pick WebFlux explicitly
+        app.setWebApplicationType(WebApplicationType.REACTIVE);
+        app.setDefaultProperties(Map.of("management.endpoints.web.exposure.include", "health,prometheus"));
+        app.run(args);
+    }
+
+    // Boot prefers Tomcat when it is on the classpath, as it is here; the whole point is Netty's event loop
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.security.reactive;
+
+import com.example.security.dto.AuthRequest;
+import com.example.security.dto.AuthResponse;
+import com.example.security.security.ClientIpResolver;
+import com.example.security.security.LoginThrottle;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService authService;
+    private final LoginThrottle loginThrottle;
+    private final ClientIpResolver clientIp;
+
+    public record Me(String username, String tenant, List<String> authorities) {}
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthResponse>> login(@RequestBody @Valid AuthRequest req, ServerWebExchange exchange) {
+        String tenant = authService.resolveTenant(exchange.getRequest());
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        String peer = remote == null ? null
+                : remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+        String ip = clientIp.resolve(peer, exchange.getRequest().getHeaders().get(clientIp.header()));
+        // قبل أي وصول لقاعدة البيانات أو BCrypt
+        return Mono.fromRunnable(() -> loginThrottle.check(tenant, req.username(), ip))
+                .then(authService.login(req.username(), req.password(), exchange))
+                .map(t -> ResponseEntity.ok(new AuthResponse(t.access(), t.accessExpSeconds())));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<AuthResponse>> refresh(ServerWebExchange exchange) {
+        return authService.refresh(exchange)
+                .map(t -> ResponseEntity.ok(new AuthResponse(t.access(), t.accessExpSeconds())));
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(ServerWebExchange exchange) {
+        return authService.logout(exchange).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    // the bearer token as this node sees it: a cheap probe for gateways and for load tests
+    @GetMapping("/me")
+    public Mono<Me> me() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(ReactiveAuthController::toMe);
+    }
+
+    private static Me toMe(Authentication auth) {
+        List<String> authorities = auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted().toList();
+        return new Me(auth.getName(), auth.getDetails() == null ? null : auth.getDetails().toString(), authorities);
+    }
+}
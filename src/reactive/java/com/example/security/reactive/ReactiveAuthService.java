@@ -0,0 +1,300 @@
+package com.example.security.reactive;
+
+import com.example.security.security.AuthMetrics;
+import com.example.security.security.HashingPoolSaturatedException;
+import com.example.security.security.JwtService;
+import com.example.security.service.AuthorizationEpochs;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Login, refresh and logout of the servlet AuthService on R2DBC: same tokens, same rows, same auth.* metrics,
+ * but no thread waits on the database. BCrypt is the only blocking work left; it runs on a bounded scheduler
+ * sized like PasswordHashingExecutor, and a full queue is refused with HashingPoolSaturatedException.
+ */
+@Service
+public class ReactiveAuthService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveAuthService.class);
+
+    private final ReactiveAuthStore store;
+    private final ReactiveRevocationStore revocations;
+    private final ReactiveAuthorizationEpochs authzEpochs;
+    private final JwtService jwt;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionalOperator tx;
+    private final AuthMetrics metrics;
+    private final Scheduler hashing;
+    private final String dummyHash;
+
+    @Value("${security.jwt.access-exp-seconds:900}")
+    private long accessExpSeconds;
+    @Value("${security.jwt.refresh-exp-seconds:604800}")
+    private long refreshExpSeconds;
+
+    @Value("${security.jwt.cookie.domain:localhost}")
+    private String cookieDomain;
+    @Value("${security.jwt.cookie.path:/}")
+    private String cookiePath;
+    @Value("${security.jwt.cookie.secure:false}")
+    private boolean cookieSecure;
+
+    @Value("${app.default-tenant:default}")
+    private String defaultTenant;
+    @Value("${app.tenant.header:X-Tenant-ID}")
+    private String tenantHeader;
+
+    public record Tokens(String access, long accessExpSeconds) {}
+
+    public ReactiveAuthService(ReactiveAuthStore store, ReactiveRevocationStore revocations,
+                               ReactiveAuthorizationEpochs authzEpochs, JwtService jwt,
+                               PasswordEncoder passwordEncoder, TransactionalOperator tx, AuthMetrics metrics,
+                               @Value("${security.hashing.threads:0}") int threads,
+                               @Value("${security.hashing.queue-capacity:0}") int queueCapacity) {
+        this.store = store;
+        this.revocations = revocations;
+        this.authzEpochs = authzEpochs;
+        this.jwt = jwt;
+        this.passwordEncoder = passwordEncoder;
+        this.tx = tx;
+        this.metrics = metrics;
+        // at startup: computed lazily, the first unknown-user login would hash it on a Netty event loop
+        this.dummyHash = passwordEncoder.encode("userNotFoundPassword");
+        int n = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int q = queueCapacity > 0 ? queueCapacity : n * 4;
+        // Reactor caps the queue per thread
+        this.hashing = Schedulers.newBoundedElastic(n, Math.max(1, q / n), "pwd-hash");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashing.dispose();
+    }
+
+    public Mono<Tokens> login(String username, String password, ServerWebExchange exchange) {
+        String tenant = resolveTenant(exchange.getRequest());
+        return Mono.defer(() -> {
+            Timer.Sample total = metrics.start();
+            // before the user's authorities are read, as in AuthService
+            long epoch = authzEpochs.current(tenant, username);
+            Mono<Tokens> body = phase("login", "authenticate", tenant, authenticate(username, password, tenant))
+                    .doOnNext(user -> metrics.verifiedTenant(tenant))
+                    .flatMap(user -> store.authorities(user.id()).collectList().flatMap(authorities -> {
+                        String access = phase("login", "sign", tenant,
+                                () -> jwt.generateAccess(user.username(), tenant, accessClaims(authorities, epoch)));
+                        return phase("login", "persist", tenant, issueRefresh(user.username(), tenant, user.id()))
+                                .map(refresh -> {
+                                    attachRefreshCookie(exchange, refresh);
+                                    return new Tokens(access, accessExpSeconds);
+                                });
+                    }));
+            return body
+                    .doOnError(e -> metrics.failure("login", tenant, e))
+                    .doFinally(s -> metrics.stop(total, "auth.op", tenant, "op", "login", "outcome", outcome(s)));
+        });
+    }
+
+    public Mono<Tokens> refresh(ServerWebExchange exchange) {
+        return Mono.defer(() -> {
+            Timer.Sample total = metrics.start();
+            AtomicReference<String> tenant = new AtomicReference<>();
+            return Mono.fromCallable(() -> jwt.parse(readRefreshCookie(exchange.getRequest())).getBody())
+                    .flatMap(claims -> {
+                        tenant.set(jwt.extractTenant(claims));
+                        metrics.verifiedTenant(tenant.get());
+                        return tx.transactional(rotate(claims, exchange));
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof RefreshRevokedException) metrics.failure("refresh", tenant.get(), "revoked");
+                        else metrics.failure("refresh", tenant.get(), e);
+                    })
+                    .doFinally(s -> metrics.stop(total, "auth.op", tenant.get(), "op", "refresh", "outcome", outcome(s)));
+        });
+    }
+
+    public Mono<Void> logout(ServerWebExchange exchange) {
+        return Mono.defer(() -> {
+            Timer.Sample total = metrics.start();
+            AtomicReference<String> tenant = new AtomicReference<>();
+            // the cookie is cleared even when the token turns out to be unusable
+            clearRefreshCookie(exchange);
+            return Mono.fromCallable(() -> jwt.parse(readRefreshCookie(exchange.getRequest())).getBody())
+                    .flatMap(claims -> {
+                        String t = jwt.extractTenant(claims);
+                        tenant.set(t);
+                        metrics.verifiedTenant(t);
+                        return tx.transactional(phase("logout", "revoke_access", t, revokeBearer(exchange.getRequest()))
+                                .then(phase("logout", "revoke_refresh", t, store.revokeRefresh(claims.getId(), t))));
+                    })
+                    .doOnError(e -> metrics.failure("logout", tenant.get(), e))
+                    .doFinally(s -> metrics.stop(total, "auth.op", tenant.get(), "op", "logout", "outcome", outcome(s)))
+                    .then();
+        });
+    }
+
+    public String resolveTenant(ServerHttpRequest request) {
+        String t = request.getHeaders().getFirst(tenantHeader);
+        return (t == null || t.isBlank()) ? defaultTenant : t;
+    }
+
+    private Mono<Tokens> rotate(Claims claims, ServerWebExchange exchange) {
+        String username = claims.getSubject();
+        String tenant = jwt.extractTenant(claims);
+        String jti = claims.getId();
+        Long claimedUserId = jwt.extractUserId(claims);
+        long epoch = authzEpochs.current(tenant, username);
+        return phase("refresh", "revoke", tenant, store.revokeRefreshIfActive(jti, tenant, Instant.now()))
+                .flatMap(revoked -> {
+                    if (revoked == 0) return Mono.error(new RefreshRevokedException());
+                    // tokens older than the uid claim: read the id from the row itself
+                    return claimedUserId != null ? Mono.just(claimedUserId)
+                            : store.findRefreshUserId(jti, tenant)
+                                    .switchIfEmpty(Mono.error(() -> new IllegalStateException("User entity not found")));
+                })
+                .flatMap(userId -> phase("refresh", "load_user", tenant, store.authorities(userId).collectList())
+                        .flatMap(authorities -> {
+                            String access = phase("refresh", "sign", tenant,
+                                    () -> jwt.generateAccess(username, tenant, accessClaims(authorities, epoch)));
+                            return phase("refresh", "persist", tenant, issueRefresh(username, tenant, userId))
+                                    .map(refresh -> {
+                                        attachRefreshCookie(exchange, refresh);
+                                        return new Tokens(access, accessExpSeconds);
+                                    });
+                        }));
+    }
+
+    private static Map<String, Object> accessClaims(List<String> authorities, long epoch) {
+        return Map.of("authorities", authorities, AuthorizationEpochs.CLAIM, epoch);
+    }
+
+    // the checks and messages of DaoAuthenticationProvider, including a hash for unknown users so that
+    // "no such user" and "wrong password" take the same time
+    private Mono<ReactiveAuthStore.UserRow> authenticate(String username, String password, String tenant) {
+        return store.findUser(username, tenant)
+                .switchIfEmpty(Mono.defer(() -> matches(password, dummyHash)
+                        .then(Mono.error(new BadCredentialsException("Bad credentials")))))
+                .flatMap(user -> {
+                    if (!user.enabled()) return Mono.error(new DisabledException("User is disabled"));
+                    return matches(password, user.password()).flatMap(ok -> ok
+                            ? upgradeHash(user, password).thenReturn(user)
+                            : Mono.error(new BadCredentialsException("Bad credentials")));
+                });
+    }
+
+    // same rehash-on-login as DaoAuthenticationProvider with UserDetailsPasswordService; best effort
+    private Mono<Void> upgradeHash(ReactiveAuthStore.UserRow user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.password())) return Mono.empty();
+        return onHashingPool(() -> passwordEncoder.encode(password))
+                .flatMap(hash -> store.updatePassword(user.id(), hash))
+                .onErrorResume(e -> {
+                    log.warn("Could not rehash password of user {}: {}", user.id(), e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Boolean> matches(String raw, String encoded) {
+        return onHashingPool(() -> passwordEncoder.matches(raw, encoded));
+    }
+
+    private <T> Mono<T> onHashingPool(Callable<T> task) {
+        return Mono.fromCallable(task)
+                .subscribeOn(hashing)
+                .onErrorMap(RejectedExecutionException.class, e -> new HashingPoolSaturatedException());
+    }
+
+    private Mono<String> issueRefresh(String username, String tenant, Long userId) {
+        String jti = UUID.randomUUID().toString();
+        return store.insertRefreshToken(jti, userId, tenant, Instant.now().plusSeconds(refreshExpSeconds))
+                .then(Mono.fromCallable(() -> jwt.generateRefresh(username, tenant, jti, userId)));
+    }
+
+    // revoke the presented access token too, or it stays valid after logout
+    private Mono<Void> revokeBearer(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) return Mono.empty();
+        try {
+            var claims = jwt.parse(header.substring(7)).getBody();
+            return revocations.revoke(claims.getId(), claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.empty(); // expired or not ours: nothing to revoke
+        }
+    }
+
+    /** {@code auth.phase{op,phase,tenant}} around a publisher, from subscription to termination. */
+    private <T> Mono<T> phase(String op, String phase, String tenant, Mono<T> body) {
+        return Mono.defer(() -> {
+            Timer.Sample s = metrics.start();
+            return body.doFinally(sig -> metrics.stop(s, "auth.phase", tenant, "op", op, "phase", phase));
+        });
+    }
+
+    private <T> T phase(String op, String phase, String tenant, Supplier<T> body) {
+        return metrics.phase(op, phase, tenant, body);
+    }
+
+    private static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case CANCEL -> "cancelled";
+            default -> "failure";
+        };
+    }
+
+    private void attachRefreshCookie(ServerWebExchange exchange, String token) {
+        exchange.getResponse().addCookie(refreshCookie(token, refreshExpSeconds));
+    }
+
+    private void clearRefreshCookie(ServerWebExchange exchange) {
+        exchange.getResponse().addCookie(refreshCookie("", 0));
+    }
+
+    private ResponseCookie refreshCookie(String value, long maxAge) {
+        return ResponseCookie.from("refresh_token", value)
+                .httpOnly(true)
+                .secure(cookieSecure)
+                .domain(cookieDomain)
+                .path(cookiePath)
+                .maxAge(maxAge)
+                .build();
+    }
+
+    private String readRefreshCookie(ServerHttpRequest request) {
+        HttpCookie c = request.getCookies().getFirst("refresh_token");
+        if (c == null) throw new IllegalArgumentException("No refresh cookie");
+        return c.getValue();
+    }
+
+    private static final class RefreshRevokedException extends IllegalArgumentException {
+        RefreshRevokedException() {
+            super("Refresh expired or revoked");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.security.reactive;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The SQL behind the reactive auth endpoints, against the tables the JPA entities map (USERS, ROLES,
+ * PERMISSIONS and their join tables, HR.REFRESH_TOKENS, REVOKED_ACCESS_TOKENS, AUTHZ_EPOCHS). Booleans are NUMBER(1)
+ * as Hibernate writes them on Oracle; instants are bound as UTC offsets, as Hibernate binds {@code Instant}.
+ */
+@Repository
+public class ReactiveAuthStore {
+
+    public record UserRow(Long id, String username, String password, boolean enabled) {}
+    public record EpochRow(String scopeKey, boolean user, long epoch) {}
+
+    private static final int REFRESH_ID_ALLOCATION = 50; // INCREMENT BY of HR.REFRESH_TOKENS_SEQ
+
+    private final DatabaseClient db;
+    private final IdBlock refreshIds = new IdBlock();
+
+    public ReactiveAuthStore(DatabaseClient db) {
+        this.db = db;
+    }
+
+    public Mono<UserRow> findUser(String username, String tenantId) {
+        return db.sql("SELECT ID, USERNAME, PASSWORD, ENABLED FROM USERS " +
+                      "WHERE UPPER(USERNAME) = UPPER(:username) AND TENANT_ID = :tenant")
+                .bind("username", username)
+                .bind("tenant", tenantId)
+                .map(r -> new UserRow(toLong(r.get("ID")), r.get("USERNAME", String.class),
+                        r.get("PASSWORD", String.class), isTrue(r.get("ENABLED"))))
+                .one();
+    }
+
+    /** Role names plus the permissions of those roles, as CustomUserDetailsService builds them. */
+    public Flux<String> authorities(Long userId) {
+        return db.sql("SELECT r.NAME FROM USER_ROLES ur JOIN ROLES r ON r.ID = ur.ROLE_ID WHERE ur.USER_ID = :uid " +
+                      "UNION " +
+                      "SELECT p.NAME FROM USER_ROLES ur JOIN ROLE_PERMISSIONS rp ON rp.ROLE_ID = ur.ROLE_ID " +
+                      "JOIN PERMISSIONS p ON p.ID = rp.PERM_ID WHERE ur.USER_ID = :uid")
+                .bind("uid", userId)
+                .map(r -> r.get(0, String.class))
+                .all();
+    }
+
+    public Mono<Void> updatePassword(Long userId, String hash) {
+        return db.sql("UPDATE USERS SET PASSWORD = :hash WHERE ID = :id")
+                .bind("hash", hash)
+                .bind("id", userId)
+                .then();
+    }
+
+    public Mono<Void> insertRefreshToken(String jti, Long userId, String tenantId, Instant expiresAt) {
+        return nextRefreshTokenId().flatMap(id -> db.sql(
+                        "INSERT INTO HR.REFRESH_TOKENS (ID, JTI, USER_ID, TENANT_ID, CREATED_AT, EXPIRES_AT, REVOKED) " +
+                        "VALUES (:id, :jti, :uid, :tenant, :created, :expires, 0)")
+                .bind("id", id)
+                .bind("jti", jti)
+                .bind("uid", userId)
+                .bind("tenant", tenantId)
+                .bind("created", utc(Instant.now()))
+                .bind("expires", utc(expiresAt))
+                .then());
+    }
+
+    // compare-and-set, as RefreshTokenRepository.revokeIfActive: 1 only for the caller that revoked a live token
+    public Mono<Long> revokeRefreshIfActive(String jti, String tenantId, Instant now) {
+        return db.sql("UPDATE HR.REFRESH_TOKENS SET REVOKED = 1 " +
+                      "WHERE JTI = :jti AND TENANT_ID = :tenant AND REVOKED = 0 AND EXPIRES_AT > :now")
+                .bind("jti", jti)
+                .bind("tenant", tenantId)
+                .bind("now", utc(now))
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Long> revokeRefresh(String jti, String tenantId) {
+        return db.sql("UPDATE HR.REFRESH_TOKENS SET REVOKED = 1 WHERE JTI = :jti AND TENANT_ID = :tenant")
+                .bind("jti", jti)
+                .bind("tenant", tenantId)
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Long> findRefreshUserId(String jti, String tenantId) {
+        return db.sql("SELECT USER_ID FROM HR.REFRESH_TOKENS WHERE JTI = :jti AND TENANT_ID = :tenant")
+                .bind("jti", jti)
+                .bind("tenant", tenantId)
+                .map(r -> toLong(r.get(0)))
+                .one();
+    }
+
+    public Mono<Void> insertRevokedAccessToken(String jti, Instant expiresAt) {
+        return db.sql("INSERT INTO REVOKED_ACCESS_TOKENS (JTI, EXPIRES_AT) VALUES (:jti, :expires)")
+                .bind("jti", jti)
+                .bind("expires", utc(expiresAt))
+                .then();
+    }
+
+    public Flux<String> activeRevokedJtis(Instant now) {
+        return db.sql("SELECT JTI FROM REVOKED_ACCESS_TOKENS WHERE EXPIRES_AT > :now")
+                .bind("now", utc(now))
+                .map(r -> r.get(0, String.class))
+                .all();
+    }
+
+    public Flux<EpochRow> authzEpochs() {
+        return db.sql("SELECT SCOPE_KEY, USERNAME, EPOCH FROM AUTHZ_EPOCHS")
+                .map(r -> new EpochRow(r.get("SCOPE_KEY", String.class), r.get("USERNAME") != null, toLong(r.get("EPOCH"))))
+                .all();
+    }
+
+    // Hibernate's pooled optimizer reads each NEXTVAL as the top of a block of 50 ids; taking whole blocks the
+    // same way keeps these ids apart from the ones the JPA nodes hand out, at one sequence call per 50 inserts
+    private Mono<Long> nextRefreshTokenId() {
+        Long id = refreshIds.take();
+        if (id != null) return Mono.just(id);
+        return db.sql("SELECT HR.REFRESH_TOKENS_SEQ.NEXTVAL FROM DUAL")
+                .map(r -> toLong(r.get(0)))
+                .one()
+                .map(hi -> {
+                    long lo = Math.max(1, hi - REFRESH_ID_ALLOCATION + 1);
+                    refreshIds.reset(lo + 1, hi);
+                    return lo;
+                });
+    }
+
+    private static final class IdBlock {
+        private long next = 1;
+        private long hi = 0;
+
+        synchronized Long take() {
+            return next <= hi ? next++ : null;
+        }
+
+        // a block fetched by a concurrent caller just replaces this one; the rest of it is never used
+        synchronized void reset(long next, long hi) {
+            this.next = next;
+            this.hi = hi;
+        }
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    // NUMBER(19) ids arrive as BigDecimal or Long depending on driver and column type
+    private static Long toLong(Object v) {
+        return v == null ? null : ((Number) v).longValue();
+    }
+
+    // NUMBER(1) on Oracle, BOOLEAN on schemas Hibernate created elsewhere
+    private static boolean isTrue(Object v) {
+        return v instanceof Boolean b ? b : v instanceof Number n && n.intValue() != 0;
+    }
+}
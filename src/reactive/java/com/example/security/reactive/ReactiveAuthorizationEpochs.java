@@ -0,0 +1,66 @@
+package com.example.security.reactive;
+
+import com.example.security.service.AuthorizationEpochs;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only view of AUTHZ_EPOCHS for the reactive nodes, with the rules of AuthorizationEpochs: tokens carry
+ * the epoch current at issuance and one stamped below its tenant's or user's epoch is stale. The epochs are
+ * only raised by the servlet nodes' RBAC writes, which also purge the table; this side just polls it.
+ */
+@Component
+public class ReactiveAuthorizationEpochs {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveAuthorizationEpochs.class);
+
+    private final ReactiveAuthStore store;
+    private final boolean enabled;
+    private final long userRowTtlMillis;
+    // scope key -> epoch; values only ever grow (merge with max)
+    private final ConcurrentHashMap<String, Long> epochs = new ConcurrentHashMap<>();
+
+    public ReactiveAuthorizationEpochs(ReactiveAuthStore store,
+                                       @Value("${security.authz-epoch.enabled:true}") boolean enabled,
+                                       @Value("${security.jwt.access-exp-seconds:900}") long accessExpSeconds) {
+        this.store = store;
+        this.enabled = enabled;
+        this.userRowTtlMillis = (accessExpSeconds + 60) * 1000;
+    }
+
+    /** The stamp for a token about to be issued; read it before the user's authorities are loaded. */
+    public long current(String tenant, String username) {
+        if (!enabled || tenant == null) return 0;
+        long t = epochs.getOrDefault(tenant, 0L);
+        if (username == null) return t;
+        return Math.max(t, epochs.getOrDefault(AuthorizationEpochs.userKey(tenant, username), 0L));
+    }
+
+    public boolean isCurrent(String tenant, String username, Claims claims) {
+        if (!enabled) return true;
+        return AuthorizationEpochs.stamp(claims) >= current(tenant, username);
+    }
+
+    @Scheduled(fixedDelayString = "${security.authz-epoch.refresh-ms:5000}")
+    public Mono<Void> refresh() {
+        if (!enabled) return Mono.empty();
+        long stale = System.currentTimeMillis() - userRowTtlMillis;
+        return store.authzEpochs()
+                .filter(row -> !row.user() || row.epoch() >= stale)
+                .doOnNext(row -> epochs.merge(row.scopeKey(), row.epoch(), Math::max))
+                .then(Mono.fromRunnable(() ->
+                        epochs.entrySet().removeIf(e -> e.getKey().indexOf('|') >= 0 && e.getValue() < stale)))
+                .onErrorResume(e -> {
+                    log.warn("Could not reload authorization epochs, keeping previous values: {}", e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.security.reactive;
+
+import com.example.security.bootstrap.DataSeeder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Seeds the embedded R2DBC database (profile reactive-h2) with DataSeeder's load users: load-0..load-(n-1),
+ * password {@link DataSeeder#LOAD_PASSWORD}, one ROLE_LOAD carrying PERM_USER_VIEW and n PERM_LOAD_i.
+ */
+@Component
+@Profile("reactive-h2")
+public class ReactiveDataSeeder implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveDataSeeder.class);
+
+    private final DatabaseClient db;
+    private final TransactionalOperator tx;
+    private final PasswordEncoder encoder;
+
+    @Value("${app.default-tenant:default}")
+    private String defaultTenant;
+    @Value("${app.seed.load-users:0}")
+    private int loadUsers;
+    @Value("${app.seed.load-permissions:20}")
+    private int loadPermissions;
+
+    public ReactiveDataSeeder(DatabaseClient db, TransactionalOperator tx, PasswordEncoder encoder) {
+        this.db = db;
+        this.tx = tx;
+        this.encoder = encoder;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (loadUsers <= 0) return;
+        Long existing = db.sql("SELECT COUNT(*) FROM USERS WHERE USERNAME = 'load-0' AND TENANT_ID = :t")
+                .bind("t", defaultTenant).map(r -> r.get(0, Long.class)).one().block();
+        if (existing != null && existing > 0) return;
+
+        // hash واحد مشترك: BCrypt لكل مستخدم سيستغرق دقائق
+        String hash = encoder.encode(DataSeeder.LOAD_PASSWORD);
+        Flux<String> permissions = Flux.concat(Flux.just("PERM_USER_VIEW"),
+                Flux.range(0, loadPermissions).map(i -> "PERM_LOAD_" + i));
+
+        tx.transactional(
+                db.sql("INSERT INTO ROLES (ID, TENANT_ID, NAME) VALUES (ROLES_SEQ.NEXTVAL, :t, 'ROLE_LOAD')")
+                        .bind("t", defaultTenant).then()
+                .thenMany(permissions.concatMap(name -> db.sql(
+                                "INSERT INTO PERMISSIONS (ID, TENANT_ID, NAME) VALUES (PERMISSIONS_SEQ.NEXTVAL, :t, :name)")
+                        .bind("t", defaultTenant).bind("name", name).then()))
+                .then(db.sql("INSERT INTO ROLE_PERMISSIONS (ROLE_ID, PERM_ID) " +
+                             "SELECT r.ID, p.ID FROM ROLES r, PERMISSIONS p " +
+                             "WHERE r.TENANT_ID = :t AND r.NAME = 'ROLE_LOAD' AND p.TENANT_ID = :t")
+                        .bind("t", defaultTenant).then())
+                .thenMany(Flux.range(0, loadUsers).concatMap(i -> db.sql(
+                                "INSERT INTO USERS (ID, TENANT_ID, USERNAME, PASSWORD, ENABLED, CREATED_AT) " +
+                                "VALUES (USERS_SEQ.NEXTVAL, :t, :u, :p, 1, CURRENT_TIMESTAMP)")
+                        .bind("t", defaultTenant).bind("u", "load-" + i).bind("p", hash).then()))
+                .then(db.sql("INSERT INTO USER_ROLES (USER_ID, ROLE_ID) " +
+                             "SELECT u.ID, r.ID FROM USERS u, ROLES r " +
+                             "WHERE u.TENANT_ID = :t AND u.USERNAME LIKE 'load-%' AND r.TENANT_ID = :t AND r.NAME = 'ROLE_LOAD'")
+                        .bind("t", defaultTenant).then())
+                .then(Mono.fromRunnable(() -> log.info("Seeded {} load users", loadUsers)))
+        ).block();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.security.reactive;
+
+import com.example.security.security.AuthMetrics;
+import com.example.security.security.IndexedAuthenticationToken;
+import com.example.security.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bearer validation for the reactive chain, with the servlet filter's rules: an invalid or revoked token leaves
+ * the exchange unauthenticated, and the authorities of a token stamped before the last RBAC change of its tenant
+ * or user are re-read from the database (or the token is refused with {@code on-stale=reject}). The tenant travels as the authentication's details, not in a ThreadLocal.
+ * Not a bean on purpose: WebFlux would also run every WebFilter bean outside the security chain.
+ */
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveJwtAuthenticationFilter.class);
+
+    private final JwtService jwtService;
+    private final ReactiveAuthStore store;
+    private final ReactiveRevocationStore revocations;
+    private final ReactiveAuthorizationEpochs authzEpochs;
+    private final AuthMetrics metrics;
+    private final boolean stateless;
+    private final boolean rejectStale;
+
+    public ReactiveJwtAuthenticationFilter(JwtService jwtService, ReactiveAuthStore store,
+                                           ReactiveRevocationStore revocations, ReactiveAuthorizationEpochs authzEpochs,
+                                           AuthMetrics metrics, boolean stateless, boolean rejectStale) {
+        this.jwtService = jwtService;
+        this.store = store;
+        this.revocations = revocations;
+        this.authzEpochs = authzEpochs;
+        this.metrics = metrics;
+        this.stateless = stateless;
+        this.rejectStale = rejectStale;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) return chain.filter(exchange);
+
+        Timer.Sample verify = metrics.start();
+        Claims claims;
+        try {
+            claims = jwtService.parse(authHeader.substring(7)).getBody();
+        } catch (Exception ex) {
+            log.warn("JWT authentication failed: {}", ex.toString());
+            metrics.stop(verify, "auth.jwt.verify", null, "outcome", "invalid");
+            metrics.failure("filter", null, ex);
+            return chain.filter(exchange);
+        }
+        String t = jwtService.extractTenant(claims);
+        String tenant = t == null || t.isBlank() ? null : t;
+        metrics.verifiedTenant(tenant);
+        metrics.stop(verify, "auth.jwt.verify", tenant, "outcome", "valid");
+        if (!jwtService.isAccessToken(claims)) {
+            log.debug("Rejected non-access token {} presented as bearer", claims.getId());
+            metrics.failure("filter", tenant, "wrong_type");
+            return chain.filter(exchange);
+        }
+        if (revocations.isRevoked(claims.getId())) {
+            log.debug("Rejected revoked access token {}", claims.getId());
+            metrics.failure("filter", tenant, "revoked");
+            return chain.filter(exchange);
+        }
+        boolean current = authzEpochs.isCurrent(tenant, claims.getSubject(), claims);
+        if (!current && rejectStale) {
+            log.debug("Rejected access token {} stamped before the last authorization change", claims.getId());
+            metrics.failure("filter", tenant, "stale");
+            return chain.filter(exchange);
+        }
+
+        return authenticate(claims, tenant, current)
+                .map(Optional::of)
+                .onErrorResume(ex -> {
+                    log.warn("JWT authentication failed: {}", ex.toString());
+                    metrics.failure("filter", tenant, ex);
+                    return Mono.just(Optional.empty());
+                })
+                .flatMap(auth -> auth.isEmpty() ? chain.filter(exchange)
+                        : chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth.get())));
+    }
+
+    private Mono<Authentication> authenticate(Claims claims, String tenant, boolean current) {
+        String username = claims.getSubject();
+        if (username == null) return Mono.error(new UsernameNotFoundException("Token has no subject"));
+        return authorityNames(username, tenant, claims, current).map(names -> {
+            var authorities = names.stream().map(SimpleGrantedAuthority::new).toList();
+            var user = User.withUsername(username).password("").authorities(authorities).build();
+            var token = new IndexedAuthenticationToken(user, authorities);
+            token.setDetails(tenant);
+            return token;
+        });
+    }
+
+    // stateless with a current plain authorities claim: trust the signature; otherwise read the current grants
+    private Mono<List<String>> authorityNames(String username, String tenant, Claims claims, boolean current) {
+        if (stateless && current && claims.containsKey("authorities")) return Mono.just(jwtService.extractAuthorities(claims));
+        return store.findUser(username, tenant)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found")))
+                .flatMap(u -> u.enabled() ? store.authorities(u.id()).collectList()
+                        : Mono.error(new DisabledException("User is disabled")));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.security.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reactive counterpart of AccessTokenRevocationStore over the same REVOKED_ACCESS_TOKENS table: an immutable
+ * set reloaded every {@code security.revocation.refresh-ms}, plus local revocations not yet in a snapshot. The
+ * reload is read-only; expired rows are purged by the servlet nodes' leased job on the shared table.
+ */
+@Component
+public class ReactiveRevocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRevocationStore.class);
+
+    private final ReactiveAuthStore store;
+    private volatile Set<String> snapshot = Set.of();
+    private final ConcurrentHashMap<String, Instant> pending = new ConcurrentHashMap<>();
+
+    public ReactiveRevocationStore(ReactiveAuthStore store) {
+        this.store = store;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) return false;
+        return snapshot.contains(jti) || (!pending.isEmpty() && pending.containsKey(jti));
+    }
+
+    public Mono<Void> revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) return Mono.empty();
+        return store.insertRevokedAccessToken(jti, expiresAt)
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.empty()) // already revoked
+                .doOnSuccess(v -> pending.put(jti, expiresAt));
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.refresh-ms:5000}")
+    public Mono<Void> refresh() {
+        Instant now = Instant.now();
+        return store.activeRevokedJtis(now)
+                .collectList()
+                .doOnNext(active -> {
+                    Set<String> exact = Set.copyOf(active);
+                    snapshot = exact;
+                    pending.entrySet().removeIf(e -> exact.contains(e.getKey()) || !e.getValue().isAfter(now));
+                })
+                .onErrorResume(e -> {
+                    log.warn("Could not reload revoked access tokens, keeping previous snapshot: {}", e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
@@ -0,0 +1,67 @@
+-- Schema of the JPA entities for the embedded R2DBC database of profile reactive-h2 (H2 in Oracle mode).
+-- On Oracle the tables already exist: the servlet application and the reactive one share them.
+CREATE SCHEMA IF NOT EXISTS HR;
+
+CREATE SEQUENCE USERS_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE ROLES_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE PERMISSIONS_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE HR.REFRESH_TOKENS_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE USERS (
+  ID         NUMBER(19)    NOT NULL PRIMARY KEY,
+  TENANT_ID  VARCHAR2(64)  NOT NULL,
+  USERNAME   VARCHAR2(80)  NOT NULL,
+  PASSWORD   VARCHAR2(200) NOT NULL,
+  ENABLED    NUMBER(1)     NOT NULL,
+  CREATED_AT TIMESTAMP(6),
+  CONSTRAINT UK_USERS_TENANT_USERNAME UNIQUE (TENANT_ID, USERNAME)
+);
+
+CREATE TABLE ROLES (
+  ID        NUMBER(19)   NOT NULL PRIMARY KEY,
+  TENANT_ID VARCHAR2(64) NOT NULL,
+  NAME      VARCHAR2(60) NOT NULL
+);
+
+CREATE TABLE PERMISSIONS (
+  ID        NUMBER(19)    NOT NULL PRIMARY KEY,
+  TENANT_ID VARCHAR2(64)  NOT NULL,
+  NAME      VARCHAR2(150) NOT NULL
+);
+
+CREATE TABLE USER_ROLES (
+  USER_ID NUMBER(19) NOT NULL REFERENCES USERS (ID),
+  ROLE_ID NUMBER(19) NOT NULL REFERENCES ROLES (ID),
+  PRIMARY KEY (USER_ID, ROLE_ID)
+);
+
+CREATE TABLE ROLE_PERMISSIONS (
+  ROLE_ID NUMBER(19) NOT NULL REFERENCES ROLES (ID),
+  PERM_ID NUMBER(19) NOT NULL REFERENCES PERMISSIONS (ID),
+  PRIMARY KEY (ROLE_ID, PERM_ID)
+);
+
+CREATE TABLE HR.REFRESH_TOKENS (
+  ID         NUMBER(19)   NOT NULL PRIMARY KEY,
+  JTI        VARCHAR2(64) NOT NULL UNIQUE,
+  USER_ID    NUMBER(19)   NOT NULL REFERENCES PUBLIC.USERS (ID),
+  TENANT_ID  VARCHAR2(64) NOT NULL,
+  CREATED_AT TIMESTAMP(6) NOT NULL,
+  EXPIRES_AT TIMESTAMP(6) NOT NULL,
+  REVOKED    NUMBER(1)    NOT NULL
+);
+CREATE INDEX HR.IDX_REFRESH_EXPIRES ON HR.REFRESH_TOKENS (EXPIRES_AT);
+
+CREATE TABLE REVOKED_ACCESS_TOKENS (
+  JTI        VARCHAR2(64) NOT NULL PRIMARY KEY,
+  EXPIRES_AT TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IDX_REVOKED_AT_EXPIRES ON REVOKED_ACCESS_TOKENS (EXPIRES_AT);
+
+CREATE TABLE AUTHZ_EPOCHS (
+  SCOPE_KEY  VARCHAR2(160) NOT NULL PRIMARY KEY,
+  TENANT_ID  VARCHAR2(64)  NOT NULL,
+  USERNAME   VARCHAR2(80),
+  EPOCH      NUMBER(19)    NOT NULL,
+  UPDATED_AT TIMESTAMP(6)  NOT NULL
+);
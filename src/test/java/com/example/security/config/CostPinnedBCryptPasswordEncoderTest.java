@@ -0,0 +1,34 @@
+package com.example.security.config;
+
+import com.example.security.config.CryptoConfig.CostPinnedBCryptPasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CostPinnedBCryptPasswordEncoderTest {
+
+    private final CostPinnedBCryptPasswordEncoder encoder = new CostPinnedBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradesOnlyHashesBelowTheCost() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+        // a node that calibrated lower never rewrites what a faster node wrote
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isFalse();
+    }
+
+    @Test
+    void leavesUnparseableHashesAlone() {
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("")).isFalse();
+        assertThat(encoder.upgradeEncoding("plain")).isFalse();
+        assertThat(encoder.upgradeEncoding("$2a$xx$abcdefghijklmnopqrstuv")).isFalse();
+    }
+
+    @Test
+    void stillMatchesHashesOfAnyCost() {
+        assertThat(encoder.matches("secret", new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.matches("secret", new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.security.repo;
+
+import com.example.security.domain.RefreshToken;
+import com.example.security.domain.UserAccount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Oracle mode with the HR schema, as in production; the embedded replacement would have neither
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:repo;MODE=Oracle;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS HR",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "logging.level.org.hibernate.tool.schema=ERROR"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RefreshTokenRepositoryTest {
+
+    @Autowired
+    private RefreshTokenRepository tokens;
+    @Autowired
+    private TestEntityManager em;
+
+    private UserAccount user;
+
+    @BeforeEach
+    void user() {
+        user = em.persist(UserAccount.builder().tenantId("acme").username("alice").password("x").enabled(true).build());
+    }
+
+    private void token(String jti, Instant expiresAt, boolean revoked) {
+        em.persist(RefreshToken.builder().jti(jti).user(user).tenantId("acme").expiresAt(expiresAt).revoked(revoked).build());
+        em.flush();
+    }
+
+    @Test
+    void revokesALiveTokenExactlyOnce() {
+        Instant now = Instant.now();
+        token("live", now.plusSeconds(3600), false);
+        assertThat(tokens.revokeIfActive("live", "acme", now)).isEqualTo(1);
+        assertThat(tokens.revokeIfActive("live", "acme", now)).isZero();
+        em.clear();
+        assertThat(tokens.findByJtiAndTenantId("live", "acme")).hasValueSatisfying(t -> assertThat(t.isRevoked()).isTrue());
+    }
+
+    @Test
+    void leavesExpiredRevokedUnknownAndForeignTokensAlone() {
+        Instant now = Instant.now();
+        token("expired", now.minusSeconds(1), false);
+        token("revoked", now.plusSeconds(3600), true);
+        token("foreign", now.plusSeconds(3600), false);
+        assertThat(tokens.revokeIfActive("expired", "acme", now)).isZero();
+        assertThat(tokens.revokeIfActive("revoked", "acme", now)).isZero();
+        assertThat(tokens.revokeIfActive("missing", "acme", now)).isZero();
+        assertThat(tokens.revokeIfActive("foreign", "other", now)).isZero();
+    }
+}
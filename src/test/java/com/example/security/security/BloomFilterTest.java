@@ -0,0 +1,40 @@
+package com.example.security.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedItem() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        String[] added = new String[10_000];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = UUID.randomUUID().toString();
+            bloom.put(added[i]);
+        }
+        for (String s : added) assertThat(bloom.mightContain(s)).as(s).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) bloom.put("in-" + i);
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloom.mightContain("out-" + i)) falsePositives++;
+        }
+        // 1% target; allow for the spread of one sample
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter bloom = new BloomFilter(0, 0.01);
+        assertThat(bloom.mightContain("anything")).isFalse();
+        assertThat(bloom.mightContain("")).isFalse();
+    }
+}
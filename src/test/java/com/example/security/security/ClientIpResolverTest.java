@@ -0,0 +1,58 @@
+package com.example.security.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver =
+            new ClientIpResolver(List.of("10.0.0.0/8", " 192.168.1.5 ", ""), "X-Forwarded-For");
+
+    @Test
+    void ignoresTheHeaderFromAnUntrustedPeer() {
+        assertThat(resolver.resolve("203.0.113.9", List.of("1.2.3.4"))).isEqualTo("203.0.113.9");
+    }
+
+    @Test
+    void ignoresTheHeaderWhenNoProxyIsTrusted() {
+        ClientIpResolver none = new ClientIpResolver(List.of(), "X-Forwarded-For");
+        assertThat(none.resolve("10.0.0.1", List.of("1.2.3.4"))).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void takesTheFirstUntrustedHopFromTheRight() {
+        assertThat(resolver.resolve("10.0.0.1", List.of("6.6.6.6, 1.2.3.4, 10.1.1.1"))).isEqualTo("1.2.3.4");
+        assertThat(resolver.resolve("192.168.1.5", List.of("1.2.3.4"))).isEqualTo("1.2.3.4");
+    }
+
+    @Test
+    void joinsRepeatedHeadersInArrivalOrder() {
+        assertThat(resolver.resolve("10.0.0.1", List.of("1.2.3.4", "5.6.7.8,10.2.2.2"))).isEqualTo("5.6.7.8");
+    }
+
+    @Test
+    void stopsAtAHopThatIsNotAnAddress() {
+        assertThat(resolver.resolve("10.0.0.1", List.of("1.2.3.4, unknown, 10.1.1.1"))).isEqualTo("10.1.1.1");
+        assertThat(resolver.resolve("10.0.0.1", List.of("evil.example.com"))).isEqualTo("10.0.0.1");
+    }
+
+    @Test
+    void fallsBackToTheLastTrustedHopWhenAllAreTrusted() {
+        assertThat(resolver.resolve("10.0.0.1", List.of("10.3.3.3, 10.2.2.2"))).isEqualTo("10.3.3.3");
+    }
+
+    @Test
+    void acceptsIpv6Hops() {
+        assertThat(resolver.resolve("10.0.0.1", List.of("2001:db8::1"))).isEqualTo("2001:db8::1");
+    }
+
+    @Test
+    void handlesMissingInput() {
+        assertThat(resolver.resolve(null, List.of("1.2.3.4"))).isNull();
+        assertThat(resolver.resolve("10.0.0.1", null)).isEqualTo("10.0.0.1");
+        assertThat(resolver.resolve("10.0.0.1", List.of(" , "))).isEqualTo("10.0.0.1");
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.security.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledAuthorizationManagerTest {
+
+    static class Api {
+        @PreAuthorize("hasAuthority('PERM_USER_VIEW')")
+        public void view() {}
+
+        @PreAuthorize("hasAnyAuthority('PERM_USER_EDIT', 'ROLE_ADMIN')")
+        public void edit() {}
+
+        @PreAuthorize("hasAuthority('PERM_A') and hasAuthority('PERM_B')")
+        public void both() {}
+
+        @PreAuthorize("hasAuthority(#name)")
+        public void dynamic(String name) {}
+
+        public void open() {}
+    }
+
+    private final CompiledAuthorizationManager manager =
+            new CompiledAuthorizationManager(new PreAuthorizeAuthorizationManager());
+
+    @Test
+    void compilesLiteralAuthorityChecksAndInterpretsTheRest() {
+        assertThat(manager.precompile(Api.class)).isEqualTo(4);
+        assertThat(manager.compiledCount()).isEqualTo(2);
+        assertThat(manager.interpretedCount()).isEqualTo(2);
+        // a second pass finds the rules already compiled
+        manager.precompile(Api.class);
+        assertThat(manager.compiledCount()).isEqualTo(2);
+    }
+
+    @Test
+    void compiledRulesDecideLikeSpel() throws Exception {
+        Authentication viewer = new TestingAuthenticationToken("u", "p", "PERM_USER_VIEW");
+        Authentication admin = new IndexedAuthenticationToken("a", AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+        assertThat(decide(viewer, "view")).isTrue();
+        assertThat(decide(admin, "view")).isFalse();
+        assertThat(decide(viewer, "edit")).isFalse();
+        assertThat(decide(admin, "edit")).isTrue();
+        assertThat(decide(null, "view")).isFalse();
+    }
+
+    @Test
+    void interpretedRulesGoThroughSpel() throws Exception {
+        Authentication both = new TestingAuthenticationToken("u", "p", "PERM_A", "PERM_B");
+        Authentication one = new TestingAuthenticationToken("u", "p", "PERM_A");
+        assertThat(decide(both, "both")).isTrue();
+        assertThat(decide(one, "both")).isFalse();
+        assertThat(manager.interpretedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void abstainsWithoutAnnotation() throws Exception {
+        var invocation = new SimpleMethodInvocation(new Api(), Api.class.getMethod("open"));
+        assertThat(manager.authorize(() -> null, invocation)).isNull();
+    }
+
+    private boolean decide(Authentication authentication, String method) throws Exception {
+        var invocation = new SimpleMethodInvocation(new Api(), Api.class.getMethod(method));
+        AuthorizationResult r = manager.authorize(() -> authentication, invocation);
+        return r.isGranted();
+    }
+}
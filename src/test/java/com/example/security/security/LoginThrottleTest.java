@@ -0,0 +1,60 @@
+package com.example.security.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private LoginThrottle throttle(int userCapacity, int userRefill, int ipCapacity, int ipRefill, int maxEntries) {
+        return new LoginThrottle(true, userCapacity, userRefill, ipCapacity, ipRefill, maxEntries,
+                registry, new AuthMetrics(registry, 50));
+    }
+
+    @Test
+    void refusesOnceTheUserBucketIsEmpty() {
+        LoginThrottle t = throttle(3, 1, 100, 100, 1000);
+        for (int i = 0; i < 3; i++) t.check("acme", "alice", "10.0.0.1");
+        assertThatThrownBy(() -> t.check("acme", "alice", "10.0.0.1"))
+                .isInstanceOf(LoginThrottledException.class)
+                .satisfies(e -> assertThat(((LoginThrottledException) e).getRetryAfterSeconds()).isBetween(1L, 60L));
+        // usernames are case-insensitive, other users and tenants have their own buckets
+        assertThatThrownBy(() -> t.check("acme", "ALICE", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+        assertThatCode(() -> t.check("acme", "bob", "10.0.0.1")).doesNotThrowAnyException();
+        assertThatCode(() -> t.check("other", "alice", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // 600 per minute: one token every 100 ms
+        LoginThrottle t = throttle(1, 600, 100, 100, 1000);
+        t.check("acme", "alice", "10.0.0.1");
+        assertThatThrownBy(() -> t.check("acme", "alice", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+        Thread.sleep(150);
+        assertThatCode(() -> t.check("acme", "alice", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void newKeysShareTheOverflowBucketOnceFull() {
+        LoginThrottle t = throttle(100, 100, 1, 1, 2);
+        t.check("acme", "u1", "10.0.0.1");
+        t.check("acme", "u2", "10.0.0.2");
+        // two live IP buckets: the third and fourth address share one overflow bucket of capacity 1
+        t.check("acme", "u3", "10.0.0.3");
+        assertThatThrownBy(() -> t.check("acme", "u4", "10.0.0.4")).isInstanceOf(LoginThrottledException.class);
+        // existing buckets are never evicted to make room
+        assertThatThrownBy(() -> t.check("acme", "u1", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+        assertThat(registry.get("auth.login.throttle.overflow").tag("scope", "ip").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void disabledThrottleNeverRefuses() {
+        LoginThrottle t = new LoginThrottle(false, 1, 1, 1, 1, 1, registry, new AuthMetrics(registry, 50));
+        for (int i = 0; i < 10; i++) t.check("acme", "alice", "10.0.0.1");
+    }
+}
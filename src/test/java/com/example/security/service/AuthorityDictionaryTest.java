@@ -0,0 +1,96 @@
+package com.example.security.service;
+
+import com.example.security.repo.PermissionRepository;
+import com.example.security.repo.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthorityDictionaryTest {
+
+    private final RoleRepository roles = mock(RoleRepository.class);
+    private final PermissionRepository permissions = mock(PermissionRepository.class);
+    private final List<String> permissionNames = new ArrayList<>(List.of("PERM_USER_VIEW", "PERM_USER_EDIT"));
+
+    @BeforeEach
+    void rows() {
+        when(roles.findNamesByTenantId("acme")).thenReturn(List.of("ROLE_USER", "ROLE_ADMIN"));
+        when(permissions.findNamesByTenantId("acme")).thenAnswer(i -> List.copyOf(permissionNames));
+    }
+
+    private AuthorityDictionary dictionary(boolean enabled, long minReloadMs) {
+        return new AuthorityDictionary(permissions, roles, enabled, minReloadMs);
+    }
+
+    @Test
+    void roundTripsAuthorities() {
+        AuthorityDictionary d = dictionary(true, 0);
+        Map<String, Object> claims = d.encode("acme", List.of("ROLE_USER", "PERM_USER_VIEW"));
+        assertThat(claims).containsOnlyKeys(AuthorityDictionary.CLAIM_BITS, AuthorityDictionary.CLAIM_VERSION);
+        // decoded in dictionary (sorted) order
+        assertThat(decode(d, claims)).containsExactly("PERM_USER_VIEW", "ROLE_USER");
+        assertThat(decode(d, d.encode("acme", List.of()))).isEmpty();
+    }
+
+    @Test
+    void everyNodeDerivesTheSameVersion() {
+        Map<String, Object> a = dictionary(true, 0).encode("acme", List.of("ROLE_ADMIN"));
+        Map<String, Object> b = dictionary(true, 0).encode("acme", List.of("ROLE_ADMIN"));
+        assertThat(a).isEqualTo(b);
+    }
+
+    @Test
+    void disabledKeepsThePlainList() {
+        assertThat(dictionary(false, 0).encode("acme", List.of("ROLE_USER")))
+                .isEqualTo(Map.of("authorities", List.of("ROLE_USER")));
+    }
+
+    @Test
+    void oldTokensStillDecodeAfterTheVersionRollsOver() {
+        AuthorityDictionary d = dictionary(true, 0);
+        Map<String, Object> before = d.encode("acme", List.of("PERM_USER_EDIT", "ROLE_ADMIN"));
+
+        permissionNames.add("PERM_AUDIT");
+        d.invalidate("acme");
+        Map<String, Object> after = d.encode("acme", List.of("PERM_AUDIT", "ROLE_ADMIN"));
+
+        assertThat(after.get(AuthorityDictionary.CLAIM_VERSION)).isNotEqualTo(before.get(AuthorityDictionary.CLAIM_VERSION));
+        assertThat(decode(d, before)).containsExactly("PERM_USER_EDIT", "ROLE_ADMIN");
+        assertThat(decode(d, after)).containsExactly("PERM_AUDIT", "ROLE_ADMIN");
+    }
+
+    @Test
+    void unknownAuthorityTriggersOneReload() {
+        AuthorityDictionary d = dictionary(true, 0);
+        d.encode("acme", List.of("ROLE_USER"));
+        permissionNames.add("PERM_NEW");
+        Map<String, Object> claims = d.encode("acme", List.of("PERM_NEW"));
+        assertThat(decode(d, claims)).containsExactly("PERM_NEW");
+        verify(permissions, times(2)).findNamesByTenantId("acme");
+    }
+
+    @Test
+    void unknownVersionDecodesToNullAndReloadsAtMostOncePerInterval() {
+        AuthorityDictionary d = dictionary(true, 60_000);
+        String bits = (String) d.encode("acme", List.of("ROLE_USER")).get(AuthorityDictionary.CLAIM_BITS);
+        assertThat(d.decode("acme", "nosuchversion", bits)).isNull();
+        assertThat(d.decode("acme", "nosuchversion", bits)).isNull();
+        // only the first encode loaded: both decodes fell inside the reload interval
+        verify(permissions, times(1)).findNamesByTenantId("acme");
+        assertThat(d.decode("acme", null, bits)).isNull();
+    }
+
+    private static List<String> decode(AuthorityDictionary d, Map<String, Object> claims) {
+        return d.decode("acme", (String) claims.get(AuthorityDictionary.CLAIM_VERSION),
+                (String) claims.get(AuthorityDictionary.CLAIM_BITS));
+    }
+}